@@ -0,0 +1,169 @@
+package dev.notkili;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Benchmarks for the conversion hot paths against a pack generated by SyntheticPack, once per trial. Every benchmark covers the whole
+// pack, i.e. all of its names or stats files. Lives in the converter's package to reach its internals.
+//
+// mvn -B -f bench/pom.xml package
+// java -jar bench/target/benchmarks.jar [jmh options], i.e. 'ConverterBenchmark.endToEnd -p pokemon=1000 -p threads=4'
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConverterBenchmark {
+    // Amount of generated pokemon, forms per pokemon & texture folders (i.e. 'custom-1'), see SyntheticPack
+    @Param("300")
+    public int pokemon;
+    @Param("3")
+    public int forms;
+    @Param("4")
+    public int textures;
+    // Threads of the end to end run
+    @Param("1")
+    public int threads;
+
+    private Path root;
+    private File statsFolder;
+    private File textureFolder;
+    private File spriteFolder;
+    private File writeFolder;
+    private File[] statsFiles;
+    private List<String> textureNames;
+
+    private PokemonNameParser cachedParser;
+    private List<PokemonObject> parsed = new ArrayList<>();
+    private StatsFileIndex index;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        root = Files.createTempDirectory("converter-benchmark");
+        SyntheticPack pack = new SyntheticPack();
+        pack.setPokemon(pokemon);
+        pack.setForms(forms);
+        pack.setTextures(textures);
+        pack.generate(root.toFile());
+
+        statsFolder = pack.getStatsFolder();
+        textureFolder = pack.getTextureFolder();
+        spriteFolder = pack.getSpriteFolder();
+        statsFiles = statsFolder.listFiles();
+        textureNames = pack.getTextureNames();
+        writeFolder = root.resolve("write").toFile();
+        writeFolder.mkdirs();
+
+        cachedParser = PokemonNameParser.loadDefault();
+        for (String name : textureNames) {
+            parsed.add(cachedParser.parse(name));
+        }
+        index = StatsFileIndex.build(statsFolder);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public void parseNamesUncached(FreshParser fresh, Blackhole blackhole) {
+        for (String name : textureNames) {
+            blackhole.consume(fresh.parser.parse(name));
+        }
+    }
+
+    @Benchmark
+    public void parseNamesCached(Blackhole blackhole) {
+        for (String name : textureNames) {
+            blackhole.consume(cachedParser.parse(name));
+        }
+    }
+
+    @Benchmark
+    public int buildStatsIndex() {
+        return StatsFileIndex.build(statsFolder).size();
+    }
+
+    @Benchmark
+    public void statsFileLookup(Blackhole blackhole) {
+        for (int i = 0; i < parsed.size(); i++) {
+            blackhole.consume(index.findByName(parsed.get(i).getName()));
+            blackhole.consume(index.findByDexOrName(String.valueOf(i % pokemon + 1)));
+        }
+    }
+
+    // Reads every stats file, adds a palette to every gender of its base form & writes it again
+    @Benchmark
+    public long parseModifyWrite() throws Exception {
+        StatsDocumentStore store = new StatsDocumentStore();
+        DirectoryOutputSink outputSink = new DirectoryOutputSink(writeFolder, false);
+
+        for (File statsFile : statsFiles) {
+            StatsDocument document = store.get(statsFile);
+            PaletteIndex palettes = document.getPalettes();
+
+            for (PokemonStats.Gender genderProperties : palettes.getGenderProperties("")) {
+                palettes.getOrAddPalette("", genderProperties, "benchmark").setTexture("pixelmon:benchmark.png");
+            }
+            store.markDirty(document);
+        }
+
+        for (String failed : store.flush(outputSink, JsonFormat.PRETTY, new PartitionedExecutor(1))) {
+            throw new IllegalStateException("Couldnt write " + failed);
+        }
+        return store.getWrites();
+    }
+
+    @Benchmark
+    public int endToEnd() {
+        ConverterConfig config = new ConverterConfig(statsFolder, textureFolder, spriteFolder, root.resolve("output").toFile());
+        config.setThreads(threads);
+        config.setLogFile(null);
+        config.setResultFile(null);
+        config.setMetricsFile(null);
+        config.setVerbosity(ConverterConfig.Verbosity.QUIET);
+
+        ConversionResult result = new TextureConverter(config).convert();
+        if (!result.isCompleted()) {
+            throw new IllegalStateException("The conversion didn't complete");
+        }
+        return result.getStatsFilesWritten();
+    }
+
+    // A parser without any cached names for every invocation, loading its alias table isn't timed
+    @State(Scope.Thread)
+    public static class FreshParser {
+        private PokemonNameParser parser;
+
+        @Setup(Level.Invocation)
+        public void load() throws IOException {
+            parser = PokemonNameParser.loadDefault();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package dev.notkili;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Generates a pixelmon style stats folder plus texture, sprite & emissive trees of placeholder pngs, named the way the
+// converter expects legacy packs to be named. Used by the benchmarks and to load test the converter without real assets.
+//
+// java -cp bench/target/benchmarks.jar dev.notkili.SyntheticPack <output> [options]
+//
+// --files <n> == Roughly how many pngs to generate (i.e. 1000, 10000, 100000), picks the amount of pokemon
+// --pokemon <n> == Amount of pokemon instead, defaults to 100
+// --forms <n> == Forms per pokemon, defaults to 3. The first ones are named like the aliased forms (alolan, galarian)
+// --textures <n> == Texture folders, defaults to 2
+// --emissive-every <n> == Every n-th pokemon gets emissive textures, defaults to 4, 0 for none
+public class SyntheticPack {
+    // Stats form name & the legacy name used in the file names
+    private static final String[][] NAMED_FORMS = {{"", ""}, {"alolan", "alola"}, {"galarian", "galar"}};
+
+    private int pokemon = 100;
+    private int forms = 3;
+    private int textures = 2;
+    private int emissiveEvery = 4;
+
+    private File statsFolder;
+    private File textureFolder;
+    private File spriteFolder;
+    private List<String> textureNames = new ArrayList<>();
+    private int pngs;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage: SyntheticPack <output> [--files <n>] [--pokemon <n>] [--forms <n>] [--textures <n>] [--emissive-every <n>]");
+            System.exit(1);
+        }
+
+        SyntheticPack pack = new SyntheticPack();
+        int files = -1;
+
+        for (int i = 1; i < args.length; i++) {
+            try {
+                switch (args[i]) {
+                    case "--files":
+                        files = Integer.parseInt(args[++i]);
+                        break;
+                    case "--pokemon":
+                        pack.setPokemon(Integer.parseInt(args[++i]));
+                        break;
+                    case "--forms":
+                        pack.setForms(Integer.parseInt(args[++i]));
+                        break;
+                    case "--textures":
+                        pack.setTextures(Integer.parseInt(args[++i]));
+                        break;
+                    case "--emissive-every":
+                        pack.setEmissiveEvery(Integer.parseInt(args[++i]));
+                        break;
+                    default:
+                        System.err.println("Unknown option '" + args[i] + "'");
+                        System.exit(1);
+                }
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                System.err.println("Missing or invalid value for '" + args[i - 1] + "'");
+                System.exit(1);
+            }
+        }
+
+        if (files > 0) {
+            pack.setPokemon(Math.max(1, (int) Math.round(files / pack.getFilesPerPokemon())));
+        }
+
+        long start = System.nanoTime();
+        pack.generate(new File(args[0]));
+        System.out.println("Generated " + pack.getPokemon() + " stats files & " + pack.getPngs() + " pngs in '" + args[0] + "' ("
+                + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    // Average amount of pngs generated per pokemon
+    public double getFilesPerPokemon() {
+        // Every third pokemon is gendered, which doubles its textures
+        double texturesPerFolder = forms * 2 * (1 + 1.0 / 3);
+        double spritesPerFolder = forms * 2;
+        double emissivesPerFolder = emissiveEvery > 0 ? 2.0 / emissiveEvery : 0;
+        return textures * (texturesPerFolder + spritesPerFolder + emissivesPerFolder);
+    }
+
+    public void generate(File root) throws IOException {
+        statsFolder = new File(root, "stats");
+        textureFolder = new File(root, "textures");
+        spriteFolder = new File(root, "sprites");
+        statsFolder.mkdirs();
+
+        // Textures are powers of two, sprites square, just like the real ones
+        byte[] texturePng = createPng(4, 4);
+        byte[] spritePng = createPng(2, 2);
+
+        for (int texture = 1; texture <= textures; texture++) {
+            new File(textureFolder, "custom-" + texture + "/emissive").mkdirs();
+            new File(spriteFolder, "custom-" + texture).mkdirs();
+        }
+
+        for (int dex = 1; dex <= pokemon; dex++) {
+            String name = "pokemon" + dex;
+            boolean gendered = dex % 3 == 0;
+            String[] genders = gendered ? new String[]{"MALE", "FEMALE"} : new String[]{"ALL"};
+
+            writeStats(dex, name, genders);
+
+            for (int texture = 1; texture <= textures; texture++) {
+                File folder = new File(textureFolder, "custom-" + texture);
+                File sprites = new File(spriteFolder, "custom-" + texture);
+
+                for (int form = 0; form < forms; form++) {
+                    String formSuffix = getLegacyForm(form).isEmpty() ? "" : "-" + getLegacyForm(form);
+
+                    for (String shiny : new String[]{"", "-shiny"}) {
+                        for (String gender : genders) {
+                            String genderSuffix = gender.equals("ALL") ? "" : "-" + gender.toLowerCase();
+                            write(new File(folder, name + formSuffix + genderSuffix + shiny + ".png"), texturePng);
+                            textureNames.add(name + formSuffix + genderSuffix + shiny);
+                        }
+                        write(new File(sprites, String.format("%03d", dex) + formSuffix + shiny + ".png"), spritePng);
+                    }
+                }
+
+                if (emissiveEvery > 0 && dex % emissiveEvery == 0) {
+                    write(new File(folder, "emissive/" + String.format("%03d", dex) + ".png"), texturePng);
+                    write(new File(folder, "emissive/" + String.format("%03d", dex) + "-shiny.png"), texturePng);
+                }
+            }
+        }
+    }
+
+    private void writeStats(int dex, String name, String[] genders) throws IOException {
+        JsonObject document = new JsonObject();
+        JsonArray formArray = new JsonArray();
+
+        document.addProperty("name", name);
+        document.addProperty("dex", dex);
+
+        for (int form = 0; form < forms; form++) {
+            JsonObject formObject = new JsonObject();
+            JsonArray genderProperties = new JsonArray();
+
+            formObject.addProperty("name", getStatsForm(form));
+            for (String gender : genders) {
+                JsonObject genderObject = new JsonObject();
+                JsonArray palettes = new JsonArray();
+                JsonObject palette = new JsonObject();
+
+                palette.addProperty("name", "none");
+                palette.addProperty("texture", "pixelmon:pokemon/" + String.format("%03d", dex) + "_" + name + "/none.png");
+                palettes.add(palette);
+                genderObject.addProperty("gender", gender);
+                genderObject.add("palettes", palettes);
+                genderProperties.add(genderObject);
+            }
+            formObject.add("genderProperties", genderProperties);
+            formArray.add(formObject);
+        }
+        document.add("forms", formArray);
+
+        Files.write(new File(statsFolder, String.format("%03d_%s.json", dex, name)).toPath(), JsonFormat.PRETTY.toJson(document).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(File file, byte[] png) throws IOException {
+        Files.write(file.toPath(), png);
+        pngs++;
+    }
+
+    private static String getStatsForm(int form) {
+        return form < NAMED_FORMS.length ? NAMED_FORMS[form][0] : "form" + form;
+    }
+
+    private static String getLegacyForm(int form) {
+        return form < NAMED_FORMS.length ? NAMED_FORMS[form][1] : "form" + form;
+    }
+
+    // A valid png of the given size with transparent pixels
+    public static byte[] createPng(int width, int height) throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        png.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        writeInt(header, width);
+        writeInt(header, height);
+        header.write(new byte[]{8, 6, 0, 0, 0});
+        writeChunk(png, "IHDR", header.toByteArray());
+
+        // Every row starts with its filter type, followed by 4 bytes per pixel
+        Deflater deflater = new Deflater();
+        deflater.setInput(new byte[(width * 4 + 1) * height]);
+        deflater.finish();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            data.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        writeChunk(png, "IDAT", data.toByteArray());
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream png, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        writeInt(png, data.length);
+        png.writeBytes(typeBytes);
+        png.writeBytes(data);
+        writeInt(png, (int) crc.getValue());
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    public int getPokemon() {
+        return pokemon;
+    }
+
+    public void setPokemon(int pokemon) {
+        this.pokemon = pokemon;
+    }
+
+    public int getForms() {
+        return forms;
+    }
+
+    public void setForms(int forms) {
+        this.forms = forms;
+    }
+
+    public int getTextures() {
+        return textures;
+    }
+
+    public void setTextures(int textures) {
+        this.textures = textures;
+    }
+
+    public int getEmissiveEvery() {
+        return emissiveEvery;
+    }
+
+    public void setEmissiveEvery(int emissiveEvery) {
+        this.emissiveEvery = emissiveEvery;
+    }
+
+    public File getStatsFolder() {
+        return statsFolder;
+    }
+
+    public File getTextureFolder() {
+        return textureFolder;
+    }
+
+    public File getSpriteFolder() {
+        return spriteFolder;
+    }
+
+    // The names of the generated textures, without '.png'
+    public List<String> getTextureNames() {
+        return textureNames;
+    }
+
+    public int getPngs() {
+        return pngs;
+    }
+}
@@ -0,0 +1,73 @@
+package dev.notkili;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The parsed pixelmon stats folder, shared between every pack of a batch. Documents are parsed at most once
+// and must never be modified, converters work on their own copy (see StatsDocumentStore)
+class BaseStats {
+    private File statsFolder;
+    private StatsFileIndex index;
+    private ConcurrentHashMap<String, PokemonStats> documents = new ConcurrentHashMap<>();
+    private AtomicInteger parses = new AtomicInteger();
+    private boolean cacheDocuments;
+
+    public BaseStats(File statsFolder) {
+        this(statsFolder, true);
+    }
+
+    // Without caching only the index is shared, every pack parses the documents it needs itself (i.e. to stay within a memory budget)
+    public BaseStats(File statsFolder, boolean cacheDocuments) {
+        this.statsFolder = statsFolder;
+        this.index = StatsFileIndex.build(statsFolder);
+        this.cacheDocuments = cacheDocuments;
+    }
+
+    public PokemonStats get(File statsFile) throws IOException {
+        if (!cacheDocuments) {
+            return parse(statsFile);
+        }
+
+        try {
+            return documents.computeIfAbsent(statsFile.getPath(), path -> {
+                try {
+                    return parse(statsFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // A document the caller is free to modify
+    public PokemonStats copy(File statsFile) throws IOException {
+        return cacheDocuments ? get(statsFile).copy() : parse(statsFile);
+    }
+
+    private PokemonStats parse(File statsFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(statsFile.toPath(), StandardCharsets.UTF_8)) {
+            parses.incrementAndGet();
+            return PokemonStats.read(reader);
+        }
+    }
+
+    public File getStatsFolder() {
+        return statsFolder;
+    }
+
+    public StatsFileIndex getIndex() {
+        return index;
+    }
+
+    public int getParses() {
+        return parses.get();
+    }
+}
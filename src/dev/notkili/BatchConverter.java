@@ -0,0 +1,49 @@
+package dev.notkili;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Converts several texture packs against the same stats folder, which is only indexed & parsed once
+public class BatchConverter {
+    private File statsFolder;
+    private int parallelPacks;
+    private int baseStatsParses;
+
+    public BatchConverter(File statsFolder, int parallelPacks) {
+        this.statsFolder = statsFolder;
+        this.parallelPacks = parallelPacks;
+    }
+
+    // The stats folder of the given configs is ignored, every pack uses the one of this batch
+    public List<ConversionResult> convert(List<ConverterConfig> packs) {
+        // The shared documents would outgrow any budget of the packs
+        boolean budget = packs.stream().anyMatch(ConverterConfig::hasDocumentBudget);
+        BaseStats baseStats = new BaseStats(statsFolder, !budget);
+        ConversionResult[] results = new ConversionResult[packs.size()];
+
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < packs.size(); i++) {
+            indices.add(i);
+        }
+
+        new PartitionedExecutor(parallelPacks).executeEach(indices, i -> {
+            try {
+                results[i] = new TextureConverter(packs.get(i), baseStats).convert();
+            } catch (Exception e) {
+                e.printStackTrace();
+                results[i] = new ConversionResult();
+                results[i].setCompleted(false);
+            }
+        });
+
+        baseStatsParses = baseStats.getParses();
+        return Arrays.asList(results);
+    }
+
+    // How many stats files were parsed for the whole batch
+    public int getBaseStatsParses() {
+        return baseStatsParses;
+    }
+}
@@ -0,0 +1,96 @@
+package dev.notkili;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+
+// Append only list of the stats files & pngs a run has finished writing, one per line after the fingerprint of the run's inputs.
+// An interrupted run leaves it behind, so '--resume' can skip everything that was already written. Deleted once a run wrote everything
+class ConversionJournal implements Closeable {
+    private static final String HEADER = "fingerprint ";
+
+    private File file;
+    private HashSet<String> completed = new HashSet<>();
+    private boolean resumed;
+    private BufferedWriter writer;
+
+    private ConversionJournal(File file) {
+        this.file = file;
+    }
+
+    public static File getFile(File output) {
+        return SidecarFile.getFile(output, ".journal");
+    }
+
+    // Continues the journal if resuming & it was written for the same inputs, otherwise starts a new one
+    public static ConversionJournal open(File file, String fingerprint, boolean resume) throws IOException {
+        ConversionJournal journal = new ConversionJournal(file);
+        boolean endsWithNewLine = true;
+
+        if (resume && file.isFile()) {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            String[] lines = content.split("\n", -1);
+
+            if (lines[0].equals(HEADER + fingerprint)) {
+                journal.resumed = true;
+                endsWithNewLine = content.endsWith("\n");
+
+                // The last line is incomplete (or empty) if the run was interrupted while writing it
+                for (int i = 1; i < lines.length - 1; i++) {
+                    journal.completed.add(lines[i]);
+                }
+            }
+        }
+
+        if (journal.resumed) {
+            journal.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (!endsWithNewLine) {
+                journal.writer.write('\n');
+            }
+        } else {
+            journal.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+            journal.writer.write(HEADER + fingerprint + "\n");
+        }
+        journal.writer.flush();
+        return journal;
+    }
+
+    // Whether the journal was written for the same inputs by an earlier run
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    // Whether an earlier run finished the item
+    public boolean isCompleted(String item) {
+        return completed.contains(item);
+    }
+
+    // Only called once the item is completely written, the line is flushed right away so it survives the process being killed
+    public synchronized void complete(String item) throws IOException {
+        writer.write(item);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // Closes the journal, it's deleted if nothing has to be resumed anymore
+    public void finish(boolean delete) throws IOException {
+        close();
+        if (delete) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,156 @@
+package dev.notkili;
+
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Hands every message to a background thread through a bounded queue, so the conversion threads never wait on the
+// console or the log files unless the queue is full. The log files always get everything, the console only what the verbosity allows
+class ConversionLog implements Closeable {
+    private static final int QUEUE_SIZE = 8192;
+    private static final Entry END = new Entry(Level.INFO, "");
+
+    private BufferedWriter logWriter;
+    private BufferedWriter resultWriter;
+    private ConverterConfig.Verbosity verbosity;
+    private boolean jsonLines;
+
+    private BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private Thread writerThread;
+
+    public ConversionLog(File logFile, File resultFile, ConverterConfig.Verbosity verbosity, boolean jsonLines) throws IOException {
+        this.logWriter = logFile == null ? null : Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8);
+        this.resultWriter = resultFile == null ? null : Files.newBufferedWriter(resultFile.toPath(), StandardCharsets.UTF_8);
+        this.verbosity = verbosity;
+        this.jsonLines = jsonLines;
+
+        writerThread = new Thread(this::drain, "conversion-log");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void message(String message) {
+        message(message, false);
+    }
+
+    public void message(String message, boolean error) {
+        enqueue(new Entry(error ? Level.ERROR : Level.INFO, message));
+    }
+
+    // Per file messages, i.e. 'Converted the texture ...', only shown on the console when verbose
+    public void detail(String message) {
+        enqueue(new Entry(Level.DETAIL, message));
+    }
+
+    public void result(String message) {
+        enqueue(new Entry(Level.RESULT, message));
+    }
+
+    private void enqueue(Entry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Entry entry = queue.take();
+
+                if (entry == END) {
+                    return;
+                }
+
+                PrintStream console = getConsole(entry.level);
+                if (console != null) {
+                    console.println(entry.message);
+                }
+
+                write(entry.level == Level.RESULT ? resultWriter : logWriter, entry);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PrintStream getConsole(Level level) {
+        switch (verbosity) {
+            case VERBOSE:
+                return level == Level.ERROR ? System.err : System.out;
+            case SUMMARY:
+                if (level == Level.DETAIL) {
+                    return null;
+                }
+                return level == Level.ERROR ? System.err : System.out;
+            default:
+                return null;
+        }
+    }
+
+    private void write(BufferedWriter writer, Entry entry) {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            if (jsonLines) {
+                JsonObject line = new JsonObject();
+                line.addProperty("time", entry.time);
+                line.addProperty("level", entry.level.name().toLowerCase(Locale.ROOT));
+                line.addProperty("message", entry.message);
+                writer.write(JsonFormat.COMPACT.toJson(line) + "\n");
+            } else {
+                writer.write(entry.message + "\n");
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        enqueue(END);
+
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (logWriter != null) {
+            logWriter.close();
+        }
+        if (resultWriter != null) {
+            resultWriter.close();
+        }
+    }
+
+    private enum Level {
+        INFO,
+        DETAIL,
+        ERROR,
+        RESULT
+    }
+
+    private static class Entry {
+        private long time = System.currentTimeMillis();
+        private Level level;
+        private String message;
+
+        public Entry(Level level, String message) {
+            this.level = level;
+            this.message = message;
+        }
+    }
+}
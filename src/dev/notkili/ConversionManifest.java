@@ -0,0 +1,123 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Remembers every converted source png (size, modification time, content hash) and the stats files & palettes it ended up in,
+// so the next run only has to redo the stats files whose sources changed
+class ConversionManifest {
+    private static final int VERSION = 2;
+
+    private String fingerprint;
+    private TreeMap<String, Entry> entries = new TreeMap<>();
+
+    public ConversionManifest(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public static File getFile(File output) {
+        return SidecarFile.getFile(output, ".manifest.json");
+    }
+
+    public static ConversionManifest load(File file) {
+        return SidecarFile.load(file, VERSION, root -> {
+            ConversionManifest manifest = new ConversionManifest(root.get("fingerprint").getAsString());
+
+            for (Map.Entry<String, JsonElement> source : root.getAsJsonObject("sources").entrySet()) {
+                JsonObject entry = source.getValue().getAsJsonObject();
+                manifest.entries.put(source.getKey(), new Entry(entry.get("size").getAsLong(), entry.get("modified").getAsLong(), entry.get("hash").getAsString(),
+                        SidecarFile.toList(entry.getAsJsonArray("statsFiles")), SidecarFile.toList(entry.getAsJsonArray("palettes"))));
+            }
+            return manifest;
+        });
+    }
+
+    public void save(File file) throws IOException {
+        SidecarFile.save(file, VERSION, root -> {
+            root.addProperty("fingerprint", fingerprint);
+
+            JsonObject sources = new JsonObject();
+            for (Map.Entry<String, Entry> source : entries.entrySet()) {
+                Entry entry = source.getValue();
+                JsonObject object = new JsonObject();
+                object.addProperty("size", entry.getSize());
+                object.addProperty("modified", entry.getModified());
+                object.addProperty("hash", entry.getHash());
+                object.add("statsFiles", SidecarFile.toArray(entry.getStatsFiles()));
+                object.add("palettes", SidecarFile.toArray(entry.getPalettes()));
+                sources.add(source.getKey(), object);
+            }
+            root.add("sources", sources);
+        });
+    }
+
+    // Reuses the previous hash when size & modification time are unchanged, so unchanged pngs aren't read at all
+    public static Entry describe(File source, Entry previous) throws IOException {
+        long size = source.length();
+        long modified = source.lastModified();
+
+        if (previous != null && previous.getSize() == size && previous.getModified() == modified) {
+            return new Entry(size, modified, previous.getHash(), new ArrayList<>(), new ArrayList<>());
+        }
+        return new Entry(size, modified, ContentHash.of(source), new ArrayList<>(), new ArrayList<>());
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Entry get(String source) {
+        return entries.get(source);
+    }
+
+    public void put(String source, Entry entry) {
+        entries.put(source, entry);
+    }
+
+    public TreeMap<String, Entry> getEntries() {
+        return entries;
+    }
+
+    public static class Entry {
+        private long size;
+        private long modified;
+        private String hash;
+        private List<String> statsFiles;
+        private List<String> palettes;
+
+        public Entry(long size, long modified, String hash, List<String> statsFiles, List<String> palettes) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.statsFiles = statsFiles;
+            this.palettes = palettes;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public List<String> getStatsFiles() {
+            return statsFiles;
+        }
+
+        public List<String> getPalettes() {
+            return palettes;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.notkili;
+
+import java.io.File;
+import java.util.List;
+
+// The sections of the result file the conversion & the legacy export have in common
+class ConversionReport {
+
+    public static void writeErrors(ConversionLog log, ConversionResult result, String erroredFilesTitle) {
+        log.result("\nResults:" +
+                "\n" +
+                "\n" +
+                "\nErrored Textures: " + result.getErroredTextures().size());
+        for (String texture : result.getErroredTextures()) {
+            log.result("\t- " + texture);
+        }
+
+        writeList(log, "Errored Sprites", result.getErroredSprites());
+        writeList(log, "Errored Emissive Textures", result.getErroredEmissiveTextures());
+        writeList(log, erroredFilesTitle, result.getErroredFiles());
+    }
+
+    public static void writeList(ConversionLog log, String title, List<String> lines) {
+        log.result("\n" +
+                "\n" + title + ": " + lines.size());
+        for (String line : lines) {
+            log.result("\t- " + line);
+        }
+    }
+
+    // Moves the counters of the emitter into the result
+    public static void writeResources(ConversionLog log, ConversionResult result, ResourceEmitter resources) {
+        result.setResources(resources.getCopied(), resources.getLinked(), resources.getUnchanged(), resources.getFailed(), resources.getConflicts());
+
+        log.result("\n" +
+                "\nResources: " + result.getResourcesCopied() + " copied, " + result.getResourcesLinked() + " linked, " + result.getResourcesUnchanged() + " unchanged" +
+                "\nErrored Resources: " + result.getErroredResources().size());
+        for (String failed : result.getErroredResources()) {
+            log.result("\t- " + failed);
+        }
+        for (String conflict : result.getResourceConflicts()) {
+            log.result("\t- Conflict " + conflict);
+        }
+    }
+
+    // The metrics file is skipped if it is null
+    public static void writeMetrics(ConversionLog log, RunMetrics metrics, File metricsFile) {
+        log.result("\n");
+        for (String line : metrics.describe()) {
+            log.result(line);
+        }
+
+        if (metricsFile == null) {
+            return;
+        }
+
+        try {
+            metrics.write(metricsFile, JsonFormat.PRETTY);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt write the metrics '" + metricsFile.getPath() + "'", true);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package dev.notkili;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConversionResult {
+    private boolean completed = true;
+
+    private List<String> erroredTextures = new ArrayList<>();
+    private List<String> erroredSprites = new ArrayList<>();
+    private List<String> erroredEmissiveTextures = new ArrayList<>();
+    private List<String> erroredFiles = new ArrayList<>();
+    private List<String> ambiguousStatsFiles = new ArrayList<>();
+    private List<String> ambiguousFileNames = new ArrayList<>();
+    private List<String> invalidPngs = new ArrayList<>();
+    private List<String> pngWarnings = new ArrayList<>();
+
+    private int resourcesCopied;
+    private int resourcesLinked;
+    private int resourcesUnchanged;
+    private List<String> erroredResources = new ArrayList<>();
+    private List<String> resourceConflicts = new ArrayList<>();
+    private List<String> duplicateResources = new ArrayList<>();
+    private long duplicateBytes;
+
+    private int statsFilesParsed;
+    private int statsFilesWritten;
+    private int parsesSaved;
+    private int writesSaved;
+
+    private int scannedFiles;
+    private int scannedFolders;
+    private long scanMillis;
+    private RunMetrics metrics;
+
+    // False if the conversion couldn't start at all, i.e. because a folder is missing
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public int getErrorCount() {
+        return erroredTextures.size() + erroredSprites.size() + erroredEmissiveTextures.size() + erroredFiles.size() + erroredResources.size() + invalidPngs.size();
+    }
+
+    public List<String> getErroredTextures() {
+        return erroredTextures;
+    }
+
+    void addErroredTexture(String texture) {
+        erroredTextures.add(texture);
+    }
+
+    public List<String> getErroredSprites() {
+        return erroredSprites;
+    }
+
+    void addErroredSprite(String sprite) {
+        erroredSprites.add(sprite);
+    }
+
+    public List<String> getErroredEmissiveTextures() {
+        return erroredEmissiveTextures;
+    }
+
+    void addErroredEmissiveTexture(String texture) {
+        erroredEmissiveTextures.add(texture);
+    }
+
+    public List<String> getErroredFiles() {
+        return erroredFiles;
+    }
+
+    void addErroredFile(String file) {
+        erroredFiles.add(file);
+    }
+
+    public List<String> getAmbiguousStatsFiles() {
+        return ambiguousStatsFiles;
+    }
+
+    void setAmbiguousStatsFiles(List<String> ambiguousStatsFiles) {
+        this.ambiguousStatsFiles = ambiguousStatsFiles;
+    }
+
+    // Texture & sprite names the alias table couldn't resolve without guessing
+    public List<String> getAmbiguousFileNames() {
+        return ambiguousFileNames;
+    }
+
+    void setAmbiguousFileNames(List<String> ambiguousFileNames) {
+        this.ambiguousFileNames = ambiguousFileNames;
+    }
+
+    // Pngs that were left out because they are broken, only filled when validating
+    public List<String> getInvalidPngs() {
+        return invalidPngs;
+    }
+
+    void setInvalidPngs(List<String> invalidPngs) {
+        this.invalidPngs = invalidPngs;
+    }
+
+    // Pngs of an unexpected size, converted anyway
+    public List<String> getPngWarnings() {
+        return pngWarnings;
+    }
+
+    void setPngWarnings(List<String> pngWarnings) {
+        this.pngWarnings = pngWarnings;
+    }
+
+    public int getResourcesCopied() {
+        return resourcesCopied;
+    }
+
+    public int getResourcesLinked() {
+        return resourcesLinked;
+    }
+
+    public int getResourcesUnchanged() {
+        return resourcesUnchanged;
+    }
+
+    public List<String> getErroredResources() {
+        return erroredResources;
+    }
+
+    public List<String> getResourceConflicts() {
+        return resourceConflicts;
+    }
+
+    // '<canonical> <- <duplicate>, ...' for every group of pngs with the same content
+    public List<String> getDuplicateResources() {
+        return duplicateResources;
+    }
+
+    // Bytes the duplicates take up (or would, without '--dedup')
+    public long getDuplicateBytes() {
+        return duplicateBytes;
+    }
+
+    void setDuplicateResources(List<String> duplicateResources, long duplicateBytes) {
+        this.duplicateResources = duplicateResources;
+        this.duplicateBytes = duplicateBytes;
+    }
+
+    void setResources(int copied, int linked, int unchanged, List<String> errored, List<String> conflicts) {
+        this.resourcesCopied = copied;
+        this.resourcesLinked = linked;
+        this.resourcesUnchanged = unchanged;
+        this.erroredResources = errored;
+        this.resourceConflicts = conflicts;
+    }
+
+    public int getStatsFilesParsed() {
+        return statsFilesParsed;
+    }
+
+    public int getStatsFilesWritten() {
+        return statsFilesWritten;
+    }
+
+    public int getParsesSaved() {
+        return parsesSaved;
+    }
+
+    public int getWritesSaved() {
+        return writesSaved;
+    }
+
+    void setStatsFiles(int parsed, int written, int parsesSaved, int writesSaved) {
+        this.statsFilesParsed = parsed;
+        this.statsFilesWritten = written;
+        this.parsesSaved = parsesSaved;
+        this.writesSaved = writesSaved;
+    }
+
+    public int getScannedFiles() {
+        return scannedFiles;
+    }
+
+    public int getScannedFolders() {
+        return scannedFolders;
+    }
+
+    // Time spent walking the texture & sprite folders
+    public long getScanMillis() {
+        return scanMillis;
+    }
+
+    void setScan(int files, int folders, long millis) {
+        this.scannedFiles = files;
+        this.scannedFolders = folders;
+        this.scanMillis = millis;
+    }
+
+    // Timings, bytes & files of every phase, null if the conversion didn't finish
+    public RunMetrics getMetrics() {
+        return metrics;
+    }
+
+    void setMetrics(RunMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
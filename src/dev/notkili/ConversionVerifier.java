@@ -0,0 +1,292 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Compares every stats file of a conversion's output with the base stats file of the same name, palette by palette, and reports
+// which palettes were added, modified or removed, which of their pngs don't exist & which got a texture but no sprite.
+// Stats files that didn't change since the last verification aren't read again (see '<output>.verify.json')
+public class ConversionVerifier {
+    private static final TypeAdapter<JsonElement> ELEMENTS = JsonFormat.COMPACT.getAdapter(JsonElement.class);
+
+    private ConverterConfig config;
+    private File resourceFolder;
+
+    private ConversionLog log;
+    private ConversionResult result;
+    private PartitionedExecutor executor;
+    private RunMetrics metrics;
+
+    private AtomicInteger cached = new AtomicInteger();
+    private List<String> missingResources = Collections.synchronizedList(new ArrayList<>());
+
+    // The stats folder of the config holds the base stats, the pngs are looked up in '<resourceFolder>/assets/...'
+    public ConversionVerifier(ConverterConfig config, File resourceFolder) {
+        this.config = config;
+        this.resourceFolder = resourceFolder;
+    }
+
+    public ConversionResult verify() {
+        result = new ConversionResult();
+        executor = new PartitionedExecutor(config.getThreads());
+        metrics = new RunMetrics(executor.getThreads());
+
+        try (ConversionLog log = new ConversionLog(config.getLogFile(), config.getResultFile(), config.getVerbosity(), config.isJsonLog())) {
+            this.log = log;
+            verifyAll();
+
+            metrics.finish();
+            result.setMetrics(metrics);
+            ConversionReport.writeMetrics(log, metrics, null);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Could not instantiate log-writer, can't continue");
+            result.setCompleted(false);
+        }
+
+        return result;
+    }
+
+    private void verifyAll() {
+        File outputFolder = config.getOutputFolder();
+
+        if (!config.getStatsFolder().isDirectory() || !outputFolder.isDirectory() || !resourceFolder.isDirectory()) {
+            log.message("The stats, output & resource folders have to exist!", true);
+            result.setCompleted(false);
+            return;
+        }
+
+        // The output is flat, so base stats files are matched by their file name
+        HashMap<String, File> baseFiles = new HashMap<>();
+        for (File file : StatsFileIndex.build(config.getStatsFolder()).getFiles()) {
+            baseFiles.putIfAbsent(file.getName(), file);
+        }
+
+        List<File> outputFiles = StatsFileIndex.build(outputFolder).getFiles();
+        File cacheFile = VerifyCache.getFile(outputFolder);
+        VerifyCache previous = VerifyCache.load(cacheFile);
+        VerifyCache cache = new VerifyCache();
+        VerifyCache.Entry[] entries = new VerifyCache.Entry[outputFiles.size()];
+
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < outputFiles.size(); i++) {
+            indices.add(i);
+        }
+
+        executor.executeEach(indices, i -> {
+            File outputFile = outputFiles.get(i);
+            File baseFile = baseFiles.get(outputFile.getName());
+            entries[i] = compare(outputFile, baseFile, previous);
+
+            if (entries[i] != null) {
+                cache.put(outputFile, entries[i]);
+                checkResources(outputFile, entries[i]);
+            }
+        });
+
+        int added = 0;
+        int modified = 0;
+        int removed = 0;
+        int withoutSprite = 0;
+
+        for (int i = 0; i < outputFiles.size(); i++) {
+            File outputFile = outputFiles.get(i);
+            VerifyCache.Entry entry = entries[i];
+
+            if (entry == null) {
+                result.addErroredFile(outputFile.getPath());
+                continue;
+            }
+            if (entry.getBaseSize() < 0) {
+                log.result(outputFile.getName() + ": no base stats file of that name, every palette counts as added");
+            }
+
+            added += entry.getAdded().size();
+            modified += entry.getModifiedPalettes().size();
+            removed += entry.getRemoved().size();
+            withoutSprite += entry.getWithoutSprite().size();
+
+            if (entry.getAdded().isEmpty() && entry.getModifiedPalettes().isEmpty() && entry.getRemoved().isEmpty()) {
+                continue;
+            }
+
+            log.result(outputFile.getName() + ": +" + entry.getAdded().size() + " ~" + entry.getModifiedPalettes().size() + " -" + entry.getRemoved().size());
+            for (String palette : entry.getAdded()) {
+                log.result("\t+ " + palette);
+            }
+            for (String palette : entry.getModifiedPalettes()) {
+                log.result("\t~ " + palette);
+            }
+            for (String palette : entry.getRemoved()) {
+                log.result("\t- " + palette);
+            }
+            for (String palette : entry.getWithoutSprite()) {
+                log.result("\tNo sprite: " + palette);
+            }
+        }
+
+        missingResources.sort(String::compareTo);
+        log.result("\n" +
+                "\nMissing pngs: " + missingResources.size());
+        for (String missing : missingResources) {
+            log.result("\t- " + missing);
+        }
+
+        log.result("\n" +
+                "\nErrored Files (Stat's files unable to read): " + result.getErroredFiles().size());
+        for (String name : result.getErroredFiles()) {
+            log.result("\t- " + name);
+        }
+
+        log.result("\n" +
+                "\nStats files: " + outputFiles.size() + " verified, " + cached.get() + " unchanged since the last verification" +
+                "\nPalettes: " + added + " added, " + modified + " modified, " + removed + " removed, " + withoutSprite + " without a sprite");
+
+        log.message("Verified " + outputFiles.size() + " stats files (" + cached.get() + " unchanged since the last verification): " + added + " palettes added, "
+                + modified + " modified & " + removed + " removed, " + missingResources.size() + " missing pngs, " + withoutSprite + " palettes without a sprite");
+
+        try {
+            cache.save(cacheFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt write the verification cache '" + cacheFile.getPath() + "'", true);
+        }
+    }
+
+    // Null if a stats file couldn't be read
+    private VerifyCache.Entry compare(File outputFile, File baseFile, VerifyCache previous) {
+        long size = outputFile.length();
+        long modified = outputFile.lastModified();
+        long baseSize = baseFile != null ? baseFile.length() : -1;
+        long baseModified = baseFile != null ? baseFile.lastModified() : -1;
+
+        VerifyCache.Entry entry = previous.get(outputFile, size, modified, baseSize, baseModified);
+        if (entry != null) {
+            cached.incrementAndGet();
+            return entry;
+        }
+
+        Map<String, PokemonStats.Palette> palettes;
+        Map<String, PokemonStats.Palette> basePalettes;
+        try {
+            palettes = getPalettes(read(outputFile));
+            basePalettes = baseFile != null ? getPalettes(read(baseFile)) : Collections.emptyMap();
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt read the stats file '" + outputFile.getPath() + "' or its base", true);
+            return null;
+        }
+
+        List<String> added = new ArrayList<>();
+        List<String> modifiedPalettes = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<String> withoutSprite = new ArrayList<>();
+        List<String> resources = new ArrayList<>();
+
+        for (Map.Entry<String, PokemonStats.Palette> palette : palettes.entrySet()) {
+            String key = palette.getKey();
+            PokemonStats.Palette now = palette.getValue();
+            PokemonStats.Palette before = basePalettes.get(key);
+
+            if (before == null) {
+                added.add(key);
+            } else if (!toJson(now).equals(toJson(before))) {
+                modifiedPalettes.add(key);
+            } else {
+                continue;
+            }
+
+            // Only the locations the conversion set, the ones of the base stats point into the pixelmon jar
+            for (String[] location : new String[][]{{now.getTexture(), before == null ? null : before.getTexture()},
+                    {now.getSprite(), before == null ? null : before.getSprite()}, {now.getEmissive(), before == null ? null : before.getEmissive()}}) {
+                if (location[0] != null && !location[0].equals(location[1])) {
+                    resources.add(key + " " + location[0]);
+                }
+            }
+            if (now.getTexture() != null && now.getSprite() == null) {
+                withoutSprite.add(key);
+            }
+        }
+
+        for (String key : basePalettes.keySet()) {
+            if (!palettes.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+
+        return new VerifyCache.Entry(size, modified, baseSize, baseModified, added, modifiedPalettes, removed, withoutSprite, resources);
+    }
+
+    private void checkResources(File outputFile, VerifyCache.Entry entry) {
+        for (String resource : entry.getResources()) {
+            int separator = resource.lastIndexOf(' ');
+            String location = resource.substring(separator + 1);
+
+            if (!DirectoryOutputSink.getTarget(resourceFolder, location).isFile()) {
+                missingResources.add(outputFile.getName() + ": " + resource.substring(0, separator) + " -> " + location);
+            }
+        }
+    }
+
+    private PokemonStats read(File statsFile) throws IOException {
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(statsFile.toPath(), StandardCharsets.UTF_8)) {
+            return PokemonStats.read(reader);
+        } finally {
+            metrics.record(RunMetrics.Phase.PARSE, start);
+            metrics.read(RunMetrics.Phase.PARSE, statsFile.length());
+        }
+    }
+
+    // '<form>/<gender>/<palette>' -> palette, only the first form of a name counts, just like for the conversion (see PaletteIndex)
+    private static Map<String, PokemonStats.Palette> getPalettes(PokemonStats stats) {
+        LinkedHashMap<String, PokemonStats.Palette> palettes = new LinkedHashMap<>();
+        List<String> formNames = new ArrayList<>();
+
+        for (PokemonStats.Form form : stats.getForms()) {
+            if (form.getName() == null || formNames.contains(form.getName())) {
+                continue;
+            }
+            formNames.add(form.getName());
+
+            for (PokemonStats.Gender gender : form.getGenderProperties()) {
+                for (PokemonStats.Palette palette : gender.getPalettes()) {
+                    if (gender.getGender() != null && palette.getName() != null) {
+                        String formName = form.getName().isEmpty() ? "base" : form.getName();
+                        palettes.putIfAbsent(formName + "/" + gender.getGender().toLowerCase(Locale.ROOT) + "/" + palette.getName(), palette);
+                    }
+                }
+            }
+        }
+        return palettes;
+    }
+
+    // Every member of the palette, in order, so any change counts as a modification
+    private static String toJson(PokemonStats.Palette palette) {
+        try {
+            StringWriter out = new StringWriter();
+            JsonWriter writer = new JsonWriter(out);
+            writer.setLenient(true);
+            palette.write(writer, ELEMENTS);
+            return out.toString();
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldnt write a palette into a string", e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package dev.notkili;
+
+import java.io.File;
+
+public class ConverterConfig {
+    private File statsFolder;
+    private File textureFolder;
+    private File spriteFolder;
+    private File outputFolder;
+
+    private int threads = 1;
+    private boolean copyResources = false;
+    private boolean hardLinks = false;
+    private boolean dryRun = false;
+    private boolean incremental = false;
+    private boolean resume = false;
+    private boolean validatePngs = false;
+    private boolean deduplicate = false;
+    private int maxDocuments = 0;
+    private long maxDocumentBytes = 0;
+    private boolean compactJson = false;
+    private File zipFile;
+    private File aliasFile;
+
+    private File logFile = new File("log.txt");
+    private File resultFile = new File("result.txt");
+    private File metricsFile = new File("metrics.json");
+    private Verbosity verbosity = Verbosity.VERBOSE;
+    private boolean jsonLog = false;
+
+    public ConverterConfig() {
+    }
+
+    public ConverterConfig(File statsFolder, File textureFolder, File spriteFolder, File outputFolder) {
+        setFolders(statsFolder, textureFolder, spriteFolder, outputFolder);
+    }
+
+    public void setFolders(File statsFolder, File textureFolder, File spriteFolder, File outputFolder) {
+        this.statsFolder = statsFolder;
+        this.textureFolder = textureFolder;
+        this.spriteFolder = spriteFolder;
+        this.outputFolder = outputFolder;
+    }
+
+    public ConverterConfig copy() {
+        ConverterConfig config = new ConverterConfig(statsFolder, textureFolder, spriteFolder, outputFolder);
+        config.setThreads(threads);
+        config.setCopyResources(copyResources);
+        config.setHardLinks(hardLinks);
+        config.setDryRun(dryRun);
+        config.setIncremental(incremental);
+        config.setResume(resume);
+        config.setValidatePngs(validatePngs);
+        config.setDeduplicate(deduplicate);
+        config.setMaxDocuments(maxDocuments);
+        config.setMaxDocumentBytes(maxDocumentBytes);
+        config.setCompactJson(compactJson);
+        config.setAliasFile(aliasFile);
+        config.setZipFile(zipFile);
+        config.setLogFile(logFile);
+        config.setResultFile(resultFile);
+        config.setMetricsFile(metricsFile);
+        config.setVerbosity(verbosity);
+        config.setJsonLog(jsonLog);
+        return config;
+    }
+
+    // Copy of this config for another texture pack, the log & result files are placed next to the output
+    public ConverterConfig forPack(File textureFolder, File spriteFolder, File outputFolder) {
+        ConverterConfig config = copy();
+        String outputPath = outputFolder.getAbsoluteFile().getPath();
+
+        config.setFolders(statsFolder, textureFolder, spriteFolder, outputFolder);
+        config.setZipFile(zipFile == null ? null : new File(outputPath + ".zip"));
+        config.setLogFile(logFile == null ? null : new File(outputPath + ".log.txt"));
+        config.setResultFile(resultFile == null ? null : new File(outputPath + ".result.txt"));
+        config.setMetricsFile(metricsFile == null ? null : new File(outputPath + ".metrics.json"));
+        return config;
+    }
+
+    public File getStatsFolder() {
+        return statsFolder;
+    }
+
+    public File getTextureFolder() {
+        return textureFolder;
+    }
+
+    public File getSpriteFolder() {
+        return spriteFolder;
+    }
+
+    public File getOutputFolder() {
+        return outputFolder;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    // Copies the pngs into '<output>/assets/pixelmon/pokemon/...'
+    public boolean isCopyResources() {
+        return copyResources;
+    }
+
+    public void setCopyResources(boolean copyResources) {
+        this.copyResources = copyResources;
+    }
+
+    // Hard links the pngs instead of copying them where possible
+    public boolean isHardLinks() {
+        return hardLinks;
+    }
+
+    public void setHardLinks(boolean hardLinks) {
+        this.hardLinks = hardLinks;
+    }
+
+    // Only lists the files that would be written
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    // Only redoes the stats files whose textures changed since the last run (see '<output>.manifest.json')
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    // Skips the stats files & pngs an interrupted run already wrote (see '<output>.journal')
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    // Checks the header of every png first, broken pngs aren't converted (see '<output>.pngs.json')
+    public boolean isValidatePngs() {
+        return validatePngs;
+    }
+
+    public void setValidatePngs(boolean validatePngs) {
+        this.validatePngs = validatePngs;
+    }
+
+    // Points the palettes of pngs with the same content at one copy, the others aren't written. Duplicates are always reported
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    // How many parsed stats files are kept in memory, 0 for all of them. Evicted ones are written right away
+    public int getMaxDocuments() {
+        return maxDocuments;
+    }
+
+    public void setMaxDocuments(int maxDocuments) {
+        this.maxDocuments = maxDocuments;
+    }
+
+    // Estimated memory of the parsed stats files kept in memory, 0 for no limit
+    public long getMaxDocumentBytes() {
+        return maxDocumentBytes;
+    }
+
+    public void setMaxDocumentBytes(long maxDocumentBytes) {
+        this.maxDocumentBytes = maxDocumentBytes;
+    }
+
+    public boolean hasDocumentBudget() {
+        return maxDocuments > 0 || maxDocumentBytes > 0;
+    }
+
+    // Writes the stats files without indentation & line breaks
+    public boolean isCompactJson() {
+        return compactJson;
+    }
+
+    public void setCompactJson(boolean compactJson) {
+        this.compactJson = compactJson;
+    }
+
+    // Writes the stats files & pngs into a resource pack zip instead of the output folder, null to disable
+    public File getZipFile() {
+        return zipFile;
+    }
+
+    public void setZipFile(File zipFile) {
+        this.zipFile = zipFile;
+    }
+
+    // Alias table used to parse the texture & sprite names, null for the built in 'pokemon-aliases.json'
+    public File getAliasFile() {
+        return aliasFile;
+    }
+
+    public void setAliasFile(File aliasFile) {
+        this.aliasFile = aliasFile;
+    }
+
+    // null to disable
+    public File getLogFile() {
+        return logFile;
+    }
+
+    public void setLogFile(File logFile) {
+        this.logFile = logFile;
+    }
+
+    // null to disable
+    public File getResultFile() {
+        return resultFile;
+    }
+
+    public void setResultFile(File resultFile) {
+        this.resultFile = resultFile;
+    }
+
+    // Timings, bytes & files of every phase as json, null to disable
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    public void setMetricsFile(File metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    // How much is printed to stdout / stderr, the log file always contains everything
+    public Verbosity getVerbosity() {
+        return verbosity;
+    }
+
+    public void setVerbosity(Verbosity verbosity) {
+        this.verbosity = verbosity;
+    }
+
+    // Writes the log & result files as one json object per line
+    public boolean isJsonLog() {
+        return jsonLog;
+    }
+
+    public void setJsonLog(boolean jsonLog) {
+        this.jsonLog = jsonLog;
+    }
+
+    public enum Verbosity {
+        // Nothing
+        QUIET,
+        // Errors, progress & results, but no message per converted file
+        SUMMARY,
+        // Everything
+        VERBOSE
+    }
+}
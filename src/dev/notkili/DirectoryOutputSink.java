@@ -0,0 +1,164 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Writes the stats files into the output folder and the pngs into '<output>/assets/<namespace>/<path>'
+class DirectoryOutputSink implements OutputSink {
+    private File outputFolder;
+    private boolean hardLinks;
+
+    public DirectoryOutputSink(File outputFolder, boolean hardLinks) {
+        this.outputFolder = outputFolder;
+        this.hardLinks = hardLinks;
+    }
+
+    // Maps i.e. 'pixelmon:pokemon/025_pikachu/...' to '<root>/assets/pixelmon/pokemon/025_pikachu/...'
+    public static File getTarget(File outputFolder, String resourceLocation) {
+        int separator = resourceLocation.indexOf(':');
+        String namespace = separator < 0 ? "minecraft" : resourceLocation.substring(0, separator);
+        String path = resourceLocation.substring(separator + 1);
+        return new File(outputFolder, "assets/" + namespace + "/" + path);
+    }
+
+    @Override
+    public long writeStats(String fileName, PokemonStats stats, Gson gson) throws IOException {
+        Path target = new File(outputFolder, fileName).toPath();
+        Path temp = getTemp(target);
+
+        // Streamed straight into the file as utf-8, the document is never turned into one big string
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            stats.write(writer, gson);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        long size = Files.size(temp);
+        replace(temp, target);
+        return size;
+    }
+
+    // Files are written next to their target first, an interrupted run never leaves a half written file behind
+    static Path getTemp(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public WriteResult writeResource(File sourceFile, String resourceLocation) throws IOException {
+        return copy(sourceFile.toPath(), getTarget(outputFolder, resourceLocation).toPath(), hardLinks);
+    }
+
+    // Skips targets that already have the same content, hard links instead of copying if asked to & possible
+    static WriteResult copy(Path source, Path target, boolean hardLinks) throws IOException {
+        Files.createDirectories(target.getParent());
+
+        if (Files.exists(target)) {
+            if (Files.isSameFile(source, target) || isIdentical(source, target)) {
+                return WriteResult.UNCHANGED;
+            }
+            Files.delete(target);
+        }
+
+        if (hardLinks) {
+            try {
+                Files.createLink(target, source);
+                return WriteResult.LINKED;
+            } catch (IOException | UnsupportedOperationException e) {
+                // i.e. the output is on a different drive, fall back to copying
+            }
+        }
+
+        Path temp = getTemp(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.setLastModifiedTime(temp, Files.getLastModifiedTime(source));
+        replace(temp, target);
+        return WriteResult.COPIED;
+    }
+
+    // Same size & modification time is treated as identical (copies keep the source's time), otherwise the content is compared
+    private static boolean isIdentical(Path source, Path target) throws IOException {
+        long size = Files.size(source);
+
+        if (size != Files.size(target)) {
+            return false;
+        }
+        if (Files.getLastModifiedTime(source).equals(Files.getLastModifiedTime(target))) {
+            return true;
+        }
+
+        try (FileChannel a = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel b = FileChannel.open(target, StandardOpenOption.READ)) {
+            ByteBuffer bufferA = ByteBuffer.allocate(8192);
+            ByteBuffer bufferB = ByteBuffer.allocate(8192);
+
+            while (true) {
+                bufferA.clear();
+                bufferB.clear();
+                int readA = fill(a, bufferA);
+                int readB = fill(b, bufferB);
+
+                if (readA != readB) {
+                    return false;
+                }
+                if (readA < 0) {
+                    return true;
+                }
+
+                bufferA.flip();
+                bufferB.flip();
+                if (!bufferA.equals(bufferB)) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static int fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int total = 0;
+
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer);
+            if (read < 0) {
+                return total == 0 ? -1 : total;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,59 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Records every stats file & png in the journal once it is written, pngs an earlier run already wrote are skipped when resuming
+class JournaledOutputSink implements OutputSink {
+    private OutputSink sink;
+    private ConversionJournal journal;
+    private File outputFolder;
+    private AtomicInteger resumedResources = new AtomicInteger();
+
+    public JournaledOutputSink(OutputSink sink, ConversionJournal journal, File outputFolder) {
+        this.sink = sink;
+        this.journal = journal;
+        this.outputFolder = outputFolder;
+    }
+
+    public static String statsItem(String fileName) {
+        return "stats " + fileName;
+    }
+
+    public static String resourceItem(String resourceLocation) {
+        return "resource " + resourceLocation;
+    }
+
+    @Override
+    public long writeStats(String fileName, PokemonStats stats, Gson gson) throws IOException {
+        long bytes = sink.writeStats(fileName, stats, gson);
+        journal.complete(statsItem(fileName));
+        return bytes;
+    }
+
+    @Override
+    public WriteResult writeResource(File source, String resourceLocation) throws IOException {
+        String item = resourceItem(resourceLocation);
+
+        if (journal.isCompleted(item) && DirectoryOutputSink.getTarget(outputFolder, resourceLocation).isFile()) {
+            resumedResources.incrementAndGet();
+            return WriteResult.UNCHANGED;
+        }
+
+        WriteResult result = sink.writeResource(source, resourceLocation);
+        journal.complete(item);
+        return result;
+    }
+
+    public int getResumedResources() {
+        return resumedResources.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sink.close();
+    }
+}
@@ -0,0 +1,10 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+// The two ways json is written: indented like the stats files pixelmon ships, or on one line (see '--compact' & '--json-log')
+class JsonFormat {
+    public static final Gson PRETTY = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    public static final Gson COMPACT = new GsonBuilder().disableHtmlEscaping().create();
+}
@@ -0,0 +1,252 @@
+package dev.notkili;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The reverse of TextureConverter: reads the palettes a conversion wrote into the stats files and copies their pngs back
+// into a legacy pack, i.e. 'textures/custom-foo/pikachu-alola-female-shiny.png', 'sprites/custom-foo/025-shiny.png'
+// & 'textures/custom-foo/emissive/025.png'. Palettes that weren't written by a conversion (i.e. the ones pixelmon ships) are skipped
+public class LegacyExporter {
+    private static final Set<String> CONVERTED_FILES = Set.of("texture.png", "sprite.png", "emissive.png");
+    private static final String SHINY_PARTICLE = "arcanery:shiny";
+
+    private ConverterConfig config;
+    private File resourceFolder;
+
+    private ConversionLog log;
+    private ConversionResult result;
+    private PokemonNameParser nameParser;
+    private PartitionedExecutor executor;
+    private ResourceEmitter resources;
+    private RunMetrics metrics;
+
+    private List<String> erroredTextures = Collections.synchronizedList(new ArrayList<>());
+    private List<String> erroredSprites = Collections.synchronizedList(new ArrayList<>());
+    private List<String> erroredEmissives = Collections.synchronizedList(new ArrayList<>());
+    private List<String> erroredFiles = Collections.synchronizedList(new ArrayList<>());
+    private AtomicInteger parsed = new AtomicInteger();
+    private AtomicInteger skipped = new AtomicInteger();
+
+    // The stats folder of the config holds the converted stats files, its texture & sprite folders are written to.
+    // The pngs are read from '<resourceFolder>/assets/...'
+    public LegacyExporter(ConverterConfig config, File resourceFolder) {
+        this.config = config;
+        this.resourceFolder = resourceFolder;
+    }
+
+    public ConversionResult export() {
+        result = new ConversionResult();
+        executor = new PartitionedExecutor(config.getThreads());
+        metrics = new RunMetrics(executor.getThreads());
+        resources = new ResourceEmitter();
+
+        try (ConversionLog log = new ConversionLog(config.getLogFile(), config.getResultFile(), config.getVerbosity(), config.isJsonLog())) {
+            this.log = log;
+            exportAll();
+
+            log.message("Finished export! Your legacy textures are now in '" + config.getTextureFolder().getPath() + "' & '" + config.getSpriteFolder().getPath() + "'");
+            metrics.finish();
+            result.setMetrics(metrics);
+            writeResults();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Could not instantiate log-writer, can't continue");
+            result.setCompleted(false);
+        }
+
+        return result;
+    }
+
+    private void exportAll() {
+        File statsFolder = config.getStatsFolder();
+
+        if (!statsFolder.isDirectory() || !resourceFolder.isDirectory()) {
+            log.message("The stats & resource folders have to exist!", true);
+            result.setCompleted(false);
+            return;
+        }
+
+        try {
+            nameParser = PokemonNameParser.load(config.getAliasFile());
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt load the alias table" + (config.getAliasFile() != null ? " '" + config.getAliasFile().getPath() + "'" : ""), true);
+            result.setCompleted(false);
+            return;
+        }
+
+        StatsFileIndex statsIndex = StatsFileIndex.build(statsFolder);
+        log.message("Indexed " + statsIndex.size() + " stats files");
+        result.setAmbiguousStatsFiles(statsIndex.getAmbiguities());
+
+        executor.executeEach(statsIndex.getFiles(), this::exportStatsFile);
+
+        for (List<String> errored : List.of(erroredTextures, erroredSprites, erroredEmissives, erroredFiles)) {
+            errored.sort(String::compareTo);
+        }
+        erroredTextures.forEach(result::addErroredTexture);
+        erroredSprites.forEach(result::addErroredSprite);
+        erroredEmissives.forEach(result::addErroredEmissiveTexture);
+        erroredFiles.forEach(result::addErroredFile);
+        result.setAmbiguousFileNames(nameParser.getAmbiguities());
+
+        log.message("Found " + resources.getUniqueCopies().size() + " pngs in " + parsed.get() + " stats files, skipped " + skipped.get()
+                + " palette entries that weren't written by a conversion");
+
+        if (config.isDryRun()) {
+            for (String copy : resources.listCopies()) {
+                log.message("Would copy " + copy);
+            }
+            return;
+        }
+
+        try (ResourceSink sink = new LegacyResourceSink(config.getTextureFolder(), config.getSpriteFolder(), config.isHardLinks())) {
+            resources.emit(sink, executor, metrics);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("An error occurred trying to write the legacy textures", true);
+            result.setCompleted(false);
+        }
+    }
+
+    private void exportStatsFile(File statsFile) {
+        PokemonStats stats;
+        try (BufferedReader reader = Files.newBufferedReader(statsFile.toPath(), StandardCharsets.UTF_8)) {
+            long start = System.nanoTime();
+            stats = PokemonStats.read(reader);
+            metrics.record(RunMetrics.Phase.PARSE, start);
+            metrics.read(RunMetrics.Phase.PARSE, statsFile.length());
+            parsed.incrementAndGet();
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt read the stats file '" + statsFile.getPath() + "'", true);
+            erroredFiles.add(statsFile.getPath());
+            return;
+        }
+
+        // Textures are matched by name, sprites & emissive textures by the dex number (if the file name has one)
+        String name = StatsFileIndex.getPokemonName(statsFile);
+        int dexNumber = StatsFileIndex.getDex(statsFile);
+        String dex = dexNumber >= 0 ? String.format("%03d", dexNumber) : null;
+
+        for (PokemonStats.Form form : stats.getForms()) {
+            if (form.getName() == null) {
+                continue;
+            }
+
+            for (PokemonStats.Gender gender : form.getGenderProperties()) {
+                if (gender.getGender() == null) {
+                    continue;
+                }
+
+                for (PokemonStats.Palette palette : gender.getPalettes()) {
+                    exportPng(palette, palette.getTexture(), "texture", name, null, form, gender, "", erroredTextures);
+                    exportPng(palette, palette.getSprite(), "sprite", name, dex, form, gender, "", erroredSprites);
+                    exportPng(palette, palette.getEmissive(), "emissive", name, dex, form, gender, "emissive/", erroredEmissives);
+                }
+            }
+        }
+    }
+
+    private void exportPng(PokemonStats.Palette palette, String resourceLocation, String kind, String name, String dex,
+                           PokemonStats.Form form, PokemonStats.Gender gender, String subFolder, List<String> errored) {
+        if (resourceLocation == null) {
+            return;
+        }
+
+        // 'pixelmon:pokemon/<dex>_<name>/<gender>/<form>/<texture folder>/<kind>.png', as written by TextureConverter, shinies use
+        // '<texture folder>-shiny'. '--dedup' may point it at a png of another kind with the same content
+        String[] parts = resourceLocation.substring(resourceLocation.indexOf(':') + 1).split("/");
+        if (!resourceLocation.startsWith("pixelmon:") || parts.length != 6 || !parts[0].equals("pokemon") || !CONVERTED_FILES.contains(parts[5])
+                || palette.getName() == null) {
+            skipped.incrementAndGet();
+            return;
+        }
+
+        // The palette is named after the texture folder without 'custom-', shinies get '-shiny' appended
+        String textureFolder = parts[4];
+        String paletteName = palette.getName();
+        String strippedFolder = textureFolder.replace("custom-", "");
+        boolean shiny;
+
+        if (paletteName.equalsIgnoreCase(strippedFolder)) {
+            // A shiny in its own folder or the palette of a texture folder that ends in '-shiny', only shinies get the shiny particle
+            shiny = paletteName.endsWith("-shiny") && SHINY_PARTICLE.equals(palette.getParticle());
+            if (shiny) {
+                textureFolder = textureFolder.substring(0, textureFolder.length() - "-shiny".length());
+            }
+        } else if (paletteName.equalsIgnoreCase(strippedFolder + "-shiny")) {
+            // Converted before shinies got their own folder
+            shiny = true;
+        } else {
+            // Pointed at the png of another texture folder by '--dedup'
+            shiny = paletteName.endsWith("-shiny");
+            String stripped = shiny ? paletteName.substring(0, paletteName.length() - "-shiny".length()) : paletteName;
+            textureFolder = (textureFolder.startsWith("custom-") ? "custom-" : "") + stripped;
+        }
+
+        // A sprite or emissive texture without a gender goes to the first gender of the form with that palette (see TextureConverter)
+        String fileName = null;
+        if (!kind.equals("texture") && isFirstGender(form, gender, palette.getName())) {
+            fileName = nameParser.toFileName(name, dex, form.getName(), "ALL", shiny);
+        }
+        if (fileName == null) {
+            fileName = nameParser.toFileName(name, dex, form.getName(), gender.getGender(), shiny);
+        }
+
+        if (fileName == null) {
+            errored.add(resourceLocation + " (no legacy name converts back to form '" + form.getName() + "', gender '" + gender.getGender() + "'"
+                    + (shiny ? ", shiny" : "") + ")");
+            return;
+        }
+
+        File source = DirectoryOutputSink.getTarget(resourceFolder, resourceLocation);
+        if (!source.isFile()) {
+            errored.add(resourceLocation + " (missing png '" + source.getPath() + "')");
+            return;
+        }
+
+        String path = textureFolder + "/" + subFolder + fileName + ".png";
+        resources.add(source, kind.equals("sprite") ? LegacyResourceSink.spriteLocation(path) : LegacyResourceSink.textureLocation(path));
+        log.detail("Exported the " + kind + " " + resourceLocation + " as '" + path + "'");
+    }
+
+    private static boolean isFirstGender(PokemonStats.Form form, PokemonStats.Gender gender, String paletteName) {
+        for (PokemonStats.Gender genderProperties : form.getGenderProperties()) {
+            if (genderProperties.getGender() == null) {
+                continue;
+            }
+
+            for (PokemonStats.Palette palette : genderProperties.getPalettes()) {
+                if (palette.getName() != null && palette.getName().equalsIgnoreCase(paletteName)) {
+                    return genderProperties == gender;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeResults() {
+        ConversionReport.writeErrors(log, result, "Errored Files (Stat's files unable to read)");
+        ConversionReport.writeList(log, "Ambiguous file names", result.getAmbiguousFileNames());
+
+        if (!config.isDryRun()) {
+            ConversionReport.writeResources(log, result, resources);
+        }
+
+        result.setStatsFiles(parsed.get(), 0, 0, 0);
+        log.result("\n" +
+                "\nStats files: " + result.getStatsFilesParsed() + " parsed" +
+                "\nSkipped palette entries: " + skipped.get());
+
+        ConversionReport.writeMetrics(log, metrics, config.getMetricsFile());
+    }
+}
@@ -0,0 +1,38 @@
+package dev.notkili;
+
+import java.io.File;
+import java.io.IOException;
+
+// Writes the pngs of a legacy pack, 'textures:<folder>/<name>.png' goes into the texture folder & 'sprites:<folder>/<name>.png'
+// into the sprite folder. Legacy packs have no stats files
+class LegacyResourceSink implements ResourceSink {
+    private File textureFolder;
+    private File spriteFolder;
+    private boolean hardLinks;
+
+    public LegacyResourceSink(File textureFolder, File spriteFolder, boolean hardLinks) {
+        this.textureFolder = textureFolder;
+        this.spriteFolder = spriteFolder;
+        this.hardLinks = hardLinks;
+    }
+
+    public static String textureLocation(String path) {
+        return "textures:" + path;
+    }
+
+    public static String spriteLocation(String path) {
+        return "sprites:" + path;
+    }
+
+    @Override
+    public WriteResult writeResource(File source, String location) throws IOException {
+        int separator = location.indexOf(':');
+        String folder = location.substring(0, separator);
+        File root = folder.equals("sprites") ? spriteFolder : textureFolder;
+        return DirectoryOutputSink.copy(source.toPath(), new File(root, location.substring(separator + 1)).toPath(), hardLinks);
+    }
+
+    @Override
+    public void close() {
+    }
+}
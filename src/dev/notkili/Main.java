@@ -1,685 +1,338 @@
 package dev.notkili;
 
-import com.google.gson.*;
-
-import java.io.*;
+import java.io.File;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Locale;
+import java.util.List;
 import java.util.Scanner;
 
 public class Main {
 
-    private static HashSet<String> alreadyConvertedPokemon = new HashSet<>();
-    private static Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
-
-    private static File logFile = new File("log.txt");
-    private static File resultFile = new File("result.txt");
-
-    private static BufferedWriter logWriter;
-    private static BufferedWriter resultWriter;
-
-    private static int TEXTURE_ERROR_COUNT = 0;
-    private static int SPRITE_ERROR_COUNT = 0;
-    private static int FILE_ERROR_COUNT = 0;
-    private static int EMISSIVE_TEXTURE_ERROR_COUNT = 0;
-    private static ArrayList<String> erroredTextures = new ArrayList<>();
-    private static ArrayList<String> erroredSprites = new ArrayList<>();
-    private static ArrayList<String> erroredEmissiveTextures = new ArrayList<>();
-    private static ArrayList<String> erroredFiles = new ArrayList<>();
-
-    private static ArrayList<EmissiveTextures> emissiveTextures = new ArrayList<>();
-
     // Arg 0 == Path of stats.json
     // Arg 1 == Path of textures
     // Arg 2 == Path of Sprites
-    // Arg 3 == (Optional) Output-Path
+    // Arg 3 == (Optional) Output-Path, defaults to 'output'
+    // Missing paths are asked for interactively
+    // --threads <n> == Amount of threads used for converting, defaults to 1
+    // --copy-resources == Copy the pngs into '<output>/assets/pixelmon/pokemon/...'
+    // --hard-links == Hard link the pngs instead of copying them where possible
+    // --dry-run == Only list the files that would be written
+    // --zip <file> == Write the stats files & pngs into a resource pack zip instead of the output folder
+    // --compact == Write the stats files without indentation
+    // --incremental == Only redo the stats files whose textures changed since the last run (see '<output>.manifest.json')
+    // --resume == Continue an interrupted run, skipping the stats files & pngs it already wrote (see '<output>.journal')
+    // --validate == Check the header of every png, broken pngs are skipped & unexpected sizes warned about (see '<output>.pngs.json')
+    // --dedup == Write pngs with the same content only once & point all their palettes at that copy. Duplicates are reported either way
+    // --max-documents <n> / --max-memory <mb> == Budget of parsed stats files kept in memory, the least recently used ones are written
+    //                                            & dropped once it is exceeded. Defaults to keeping all of them
+    // --aliases <file> == Alias table for the texture & sprite names, defaults to the built in 'pokemon-aliases.json'
+    // --log <file> / --result <file> == Where to write the log & results, defaults to 'log.txt' & 'result.txt'
+    // --metrics <file> == Where to write the timings of every phase as json, defaults to 'metrics.json'
+    // --verbosity <quiet|summary|verbose> == How much is printed to the console, defaults to verbose. The log file always contains everything
+    // --quiet == Same as '--verbosity quiet'
+    // --json-log == Write the log & result files as json lines
+    // --pack <textures> <sprites> <output> == Convert several packs against the stats folder (Arg 0), can be repeated.
+    //                                         Log, result, metrics & zip files are named after each output, i.e. '<output>.log.txt'
+    // --parallel-packs <n> == Amount of packs converted at the same time, defaults to 1
+    // --watch == Convert the pack, then keep converting the stats files of every png that is added, changed or removed until stopped.
+    //            The stats folder stays parsed in between, the conversions are incremental
+    // --export-legacy == Turn a converted pack back into legacy textures: Arg 0 is the converted stats folder, Arg 1 & Arg 2 the texture
+    //                    & sprite folders to write, Arg 3 (optional) the folder holding 'assets/pixelmon/...', defaults to Arg 0
+    // --verify == Compare a conversion's output with the base stats: Arg 0 is the base stats folder, Arg 1 the output folder,
+    //             Arg 2 (optional) the folder holding 'assets/pixelmon/...', defaults to Arg 1. Unchanged stats files aren't read again
+    //             (see '<output>.verify.json')
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
-        String statsPath;
-        String pixelmonTexturesPath;
-        String pixelmonSpritesPath;
-        String outputPath;
-        PathValues tempResult;
+        List<String> paths = new ArrayList<>();
+        List<String[]> packs = new ArrayList<>();
+        int parallelPacks = 1;
+        boolean exportLegacy = false;
+        boolean watch = false;
+        boolean verify = false;
+        ConverterConfig config = new ConverterConfig();
+
+        for (int i = 0; i < args.length; i++) {
+            try {
+                switch (args[i]) {
+                    case "--threads":
+                        config.setThreads(Integer.parseInt(args[++i]));
+                        break;
+                    case "--copy-resources":
+                        config.setCopyResources(true);
+                        break;
+                    case "--hard-links":
+                        config.setCopyResources(true);
+                        config.setHardLinks(true);
+                        break;
+                    case "--dry-run":
+                        config.setDryRun(true);
+                        break;
+                    case "--zip":
+                        config.setZipFile(new File(args[++i]));
+                        break;
+                    case "--compact":
+                        config.setCompactJson(true);
+                        break;
+                    case "--incremental":
+                        config.setIncremental(true);
+                        break;
+                    case "--resume":
+                        config.setResume(true);
+                        break;
+                    case "--validate":
+                        config.setValidatePngs(true);
+                        break;
+                    case "--dedup":
+                        config.setDeduplicate(true);
+                        break;
+                    case "--max-documents":
+                        config.setMaxDocuments(Integer.parseInt(args[++i]));
+                        break;
+                    case "--max-memory":
+                        config.setMaxDocumentBytes(Long.parseLong(args[++i]) * 1024 * 1024);
+                        break;
+                    case "--aliases":
+                        config.setAliasFile(new File(args[++i]));
+                        break;
+                    case "--log":
+                        config.setLogFile(new File(args[++i]));
+                        break;
+                    case "--result":
+                        config.setResultFile(new File(args[++i]));
+                        break;
+                    case "--metrics":
+                        config.setMetricsFile(new File(args[++i]));
+                        break;
+                    case "--verbosity":
+                        config.setVerbosity(ConverterConfig.Verbosity.valueOf(args[++i].toUpperCase()));
+                        break;
+                    case "--quiet":
+                        config.setVerbosity(ConverterConfig.Verbosity.QUIET);
+                        break;
+                    case "--json-log":
+                        config.setJsonLog(true);
+                        break;
+                    case "--pack":
+                        packs.add(new String[]{args[++i], args[++i], args[++i]});
+                        break;
+                    case "--parallel-packs":
+                        parallelPacks = Integer.parseInt(args[++i]);
+                        break;
+                    case "--watch":
+                        watch = true;
+                        break;
+                    case "--verify":
+                        verify = true;
+                        break;
+                    case "--export-legacy":
+                        exportLegacy = true;
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            System.err.println("Unknown option '" + args[i] + "'");
+                            System.exit(1);
+                        }
+                        paths.add(args[i]);
+                        break;
+                }
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                System.err.println("Missing or invalid value for '" + args[i - 1] + "'");
+                System.exit(1);
+            }
+        }
 
-        try {
-            logWriter = new BufferedWriter(new FileWriter(logFile));
-            resultWriter = new BufferedWriter(new FileWriter(resultFile));
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Could not instantiate log-writer, can't continue");
+        if (exportLegacy) {
+            exportLegacy(config, paths);
             return;
         }
 
-        System.out.println("Hey, please follow these steps to convert your existing texturepacks into the new pixelmon 9.0.0 stats-files!" +
-                "\n\nDisclaimer: This won't work for pokemon who previously had forms that are now palettes, i.e. Vivillon, Florges, Shellos et cetera" +
-                "\nThese pokemon must be changed manually in order for the program to recognize them" +
-                "\n\nSupported is:" +
-                "\n- All known forms (i.e. dynamax, mega, arceus ..." +
-                "\n- Genders (Male, Female, All (wildcard)" +
-                "\n- Shiny / Non - Shiny Pokemon, Shinies will be saved as palette: <texturename-shiny> & will have the default shiny particle applied" +
-                "\n- Sprites (all above should apply)" +
-                "\n- Emissive textures" +
-                "\n\nAll textures now follow the base paths (i.e. pixelmon:pokemon/<dex>_<name>/all/<form>/<texture_name>/<textureName>.png)" +
-                "\nWith textureName being: [sprite, texture, emissive]" +
-                "\n\n\nMade by: NotKili (NotKili#1200)" +
-                "\nPlease send bug-reports my way (preferably over discord) when any happen! (Some will still exist, my sample with ~500 textures works flawless apart from vivillions, mareeps & other previously mentioned pokemon");
-
-        while (true) {
-            System.out.print("\nPlease enter the path of the stats folder: ");
-            statsPath = scanner.nextLine();
-
-            if ((tempResult = validatePath(statsPath)) == PathValues.SUCCESS) {
-                System.out.printf(tempResult.getDescription(), statsPath);
-                break;
-            } else {
-                System.err.println(tempResult.getDescription() + "\n");
-                continue;
-            }
+        if (verify) {
+            verify(config, paths);
+            return;
         }
 
-        while (true) {
-            System.out.print("\nPlease enter the path of the custom texture's folder: ");
-            pixelmonTexturesPath = scanner.nextLine();
-
-            if ((tempResult = validatePath(pixelmonTexturesPath)) == PathValues.SUCCESS) {
-                System.out.printf(tempResult.getDescription(), pixelmonTexturesPath);
-                break;
-            } else {
-                System.err.println(tempResult.getDescription() + "\n");
-                continue;
+        if (!packs.isEmpty()) {
+            if (watch) {
+                System.err.println("The batch mode can't watch the packs");
+                System.exit(1);
             }
+            convertPacks(config, paths, packs, parallelPacks);
+            return;
         }
 
-        while (true) {
-            System.out.print("\nPlease enter the path of the custom sprites folder: ");
-            pixelmonSpritesPath = scanner.nextLine();
+        String statsPath;
+        String pixelmonTexturesPath;
+        String pixelmonSpritesPath;
+        String outputPath;
 
-            if ((tempResult = validatePath(pixelmonSpritesPath)) == PathValues.SUCCESS) {
-                System.out.printf(tempResult.getDescription(), pixelmonSpritesPath);
-                break;
-            } else {
-                System.err.println(tempResult.getDescription() + "\n");
-                continue;
+        // Folders given on the command line are checked like the ones asked for below, even if the rest still has to be asked for
+        for (int i = 0; i < Math.min(paths.size(), 3); i++) {
+            PathValues pathResult = validatePath(paths.get(i));
+            if (pathResult != PathValues.SUCCESS) {
+                System.err.println("'" + paths.get(i) + "': " + pathResult.getDescription());
+                System.exit(1);
             }
         }
 
-        while (true) {
-            System.out.print("\nPlease enter the path of the output folder: ");
-            outputPath = scanner.nextLine();
-
-            if ((tempResult = validatePath(outputPath)) == PathValues.SUCCESS) {
-                System.out.printf(tempResult.getDescription(), outputPath);
-                break;
-            } else {
-                System.err.println(tempResult.getDescription() + "\n");
-                continue;
+        if (paths.size() >= 3) {
+            statsPath = paths.get(0);
+            pixelmonTexturesPath = paths.get(1);
+            pixelmonSpritesPath = paths.get(2);
+            outputPath = paths.size() > 3 ? paths.get(3) : "output";
+        } else {
+            Scanner scanner = new Scanner(System.in);
+
+            System.out.println("Hey, please follow these steps to convert your existing texturepacks into the new pixelmon 9.0.0 stats-files!" +
+                        "\n\nDisclaimer: This won't work for pokemon who previously had forms that are now palettes, i.e. Vivillon, Florges, Shellos et cetera" +
+                        "\nThese pokemon must be changed manually in order for the program to recognize them" +
+                        "\n\nSupported is:" +
+                        "\n- All known forms (i.e. dynamax, mega, arceus ..." +
+                        "\n- Genders (Male, Female, All (wildcard)" +
+                        "\n- Shiny / Non - Shiny Pokemon, Shinies will be saved as palette: <texturename-shiny> & will have the default shiny particle applied" +
+                        "\n- Sprites (all above should apply)" +
+                        "\n- Emissive textures" +
+                        "\n\nAll textures now follow the base paths (i.e. pixelmon:pokemon/<dex>_<name>/all/<form>/<texture_name>/<textureName>.png)" +
+                        "\nWith textureName being: [sprite, texture, emissive]" +
+                        "\n\n\nMade by: NotKili (NotKili#1200)" +
+                        "\nPlease send bug-reports my way (preferably over discord) when any happen! (Some will still exist, my sample with ~500 textures works flawless apart from vivillions, mareeps & other previously mentioned pokemon");
+
+            statsPath = paths.size() > 0 ? paths.get(0) : askForPath(scanner, "\nPlease enter the path of the stats folder: ");
+            pixelmonTexturesPath = paths.size() > 1 ? paths.get(1) : askForPath(scanner, "\nPlease enter the path of the custom texture's folder: ");
+            pixelmonSpritesPath = askForPath(scanner, "\nPlease enter the path of the custom sprites folder: ");
+            outputPath = askForPath(scanner, "\nPlease enter the path of the output folder: ");
+        }
+
+        config.setFolders(new File(statsPath), new File(pixelmonTexturesPath), new File(pixelmonSpritesPath), new File(outputPath));
+
+        if (watch) {
+            try {
+                new WatchConverter(config).watch();
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.err.println("Couldnt watch the texture, sprite & stats folders");
+                System.exit(1);
             }
+            return;
         }
 
-        convertAll(statsPath, pixelmonTexturesPath, pixelmonSpritesPath, outputPath);
-
-        logMessage("Finished conversion! Your updated stats-files are now in '" + outputPath + "'");
-
-
-        logResult("\nResults:" +
-                "\n" +
-                "\n" +
-                "\nErrored Textures: " + TEXTURE_ERROR_COUNT);
-        for (String texture : erroredTextures) {
-            logResult("\t- " + texture);
-        }
-
-        logResult("\n" +
-                "\nErrored Sprites: " + SPRITE_ERROR_COUNT);
-        for (String sprite : erroredSprites) {
-            logResult("\t- " + sprite);
-        }
-
-        logResult("\n" +
-                "\nErrored Emissive Textures: " + EMISSIVE_TEXTURE_ERROR_COUNT);
-        for (String name : erroredEmissiveTextures) {
-            logResult("\t- " + name);
-        }
-
-        logResult("\n" +
-                "\nErrored Files (Stat's files unable to fetch): " + FILE_ERROR_COUNT);
-        for (String name : erroredFiles) {
-            logResult("\t- " + name);
-        }
+        ConversionResult result = new TextureConverter(config).convert();
 
-        try {
-            logWriter.close();
-            resultWriter.close();
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (!result.isCompleted()) {
+            System.exit(1);
         }
-
     }
 
-    private static PathValues validatePath(String path) {
-
-        if (path.isEmpty()) {
-            return PathValues.EMPTY;
-        }
-
-        File file = new File(path);
-
-        if (!file.exists()) {
-            return PathValues.NOT_EXIST;
-        } else {
-            if (!file.isDirectory()) {
-                return PathValues.NO_DIR;
-            }
-            return PathValues.SUCCESS;
+    private static void convertPacks(ConverterConfig config, List<String> paths, List<String[]> packs, int parallelPacks) {
+        if (paths.size() != 1 || validatePath(paths.get(0)) != PathValues.SUCCESS) {
+            System.err.println("The batch mode needs exactly one existing stats folder as argument");
+            System.exit(1);
         }
-    }
 
-    private static void convertAll(String statsPath, String pokemonPath, String spritePath, String outputPath) {
+        config.setFolders(new File(paths.get(0)), null, null, null);
+        List<ConverterConfig> packConfigs = new ArrayList<>();
 
-        File statsFolder = new File(statsPath);
-        File pokemonTextureFolder = new File(pokemonPath);
-        File spriteTextureFolder = new File(spritePath);
-        File outputFolder = new File(outputPath);
-
-        if (isDir(statsFolder) && isDir(pokemonTextureFolder) && isDir(spriteTextureFolder)) {
-            if (!isDir(outputFolder)) {
-                if (!outputFolder.mkdirs()) {
-                    logMessage("An error occurred trying to create the output folder. Make sure it exists!", true);
-                    return;
+        for (String[] pack : packs) {
+            for (int i = 0; i < 2; i++) {
+                PathValues pathResult = validatePath(pack[i]);
+                if (pathResult != PathValues.SUCCESS) {
+                    System.err.println("'" + pack[i] + "': " + pathResult.getDescription());
+                    System.exit(1);
                 }
             }
-
-            convertAllPokemon(statsFolder, pokemonTextureFolder, outputFolder);
-            convertAllSprites(spriteTextureFolder, outputFolder);
-            convertAllEmissiveTextures(outputFolder);
+            packConfigs.add(config.forPack(new File(pack[0]), new File(pack[1]), new File(pack[2])));
         }
-    }
-
-    private static boolean isDir(File file) {
-        return file.exists() && file.isDirectory();
-    }
 
-    private static void convertAllPokemon(File statsFolder, File pokemonFolder, File outputFolder) {
-        String textureName = pokemonFolder.getName();
+        BatchConverter batch = new BatchConverter(config.getStatsFolder(), parallelPacks);
+        List<ConversionResult> results = batch.convert(packConfigs);
+        boolean completed = true;
 
-        for (File pokemonFile : pokemonFolder.listFiles()) {
-            if (pokemonFile.isDirectory()) {
-                if (pokemonFile.getName().contains("emissive")) {
-                    emissiveTextures.add(new EmissiveTextures(pokemonFile, textureName));
-                } else {
-                    convertAllPokemon(statsFolder, pokemonFile, outputFolder);
-                }
-            } else {
-                if (pokemonFile.getName().endsWith(".png")) {
-                    String fileName = pokemonFile.getName().replace(".png", "");
-                    fileName = fileName.strip();
-
-                    PokemonObject currentPokemon = createPokemonObjectFromName(fileName);
-                    File pokemonStatFile = findPokemonStatsFile(outputFolder, statsFolder, currentPokemon.getName().toLowerCase());
-
-                    if (pokemonStatFile == null) {
-                        FILE_ERROR_COUNT++;
-                        logMessage("Could not locate stats file for '" + currentPokemon + "'", true);
-                        erroredFiles.add(fileName);
-                        continue;
-                    }
-
-                    if (convertPokemon(pokemonStatFile, textureName, fileName, currentPokemon, outputFolder)) {
-                        logMessage("Converted the texture '" + textureName + "' for " + currentPokemon);
-                    } else {
-                        TEXTURE_ERROR_COUNT++;
-                        erroredTextures.add(textureName + ": " + fileName);
-                        logMessage("An error occurred while trying to convert the texture '" + textureName + "' for " + currentPokemon, true);
-                    }
-                } else {
-                    logMessage("Found file with unsupported file extension: '" + pokemonFile.getName() + "'", true);
-                }
-            }
+        System.out.println("\nConverted " + packs.size() + " packs, parsed " + batch.getBaseStatsParses() + " stats files once for all of them");
+        for (int i = 0; i < packs.size(); i++) {
+            ConversionResult result = results.get(i);
+            System.out.println("\t- " + packs.get(i)[2] + ": " + (result.isCompleted() ? result.getErrorCount() + " errors" : "failed"));
+            completed &= result.isCompleted();
         }
-    }
 
-    private static void convertAllSprites(File spriteFolder, File outputFolder) {
-        for (File spriteFile : spriteFolder.listFiles()) {
-            if (spriteFile.isDirectory()) {
-                convertAllSprites(spriteFile, outputFolder);
-            } else {
-                if (spriteFile.getName().endsWith(".png")) {
-                    String fileName = spriteFile.getName().replace(".png", "");
-                    fileName = fileName.strip();
-
-                    PokemonObject pokemonObject = createPokemonObjectFromName(fileName);
-                    String textureName = spriteFolder.getName();
-
-                    File pokemonStatsFile = findPokemonStatsFile(outputFolder, pokemonObject.name);
-
-                    if (pokemonStatsFile == null) {
-                        FILE_ERROR_COUNT++;
-                        logMessage("Could not locate stats file for '" + pokemonObject + "'", true);
-                        erroredFiles.add(fileName);
-                        continue;
-                    }
-
-                    if (convertSprite(outputFolder, pokemonStatsFile, textureName, fileName, pokemonObject)) {
-                        logMessage("Converted the sprite '" + textureName + "' for " + pokemonObject);
-                    } else {
-                        SPRITE_ERROR_COUNT++;
-                        erroredSprites.add(textureName + ": " + fileName);
-                        logMessage("An error occurred while trying to convert the sprite '" + textureName + "' for " + pokemonObject, true);
-                    }
-
-                } else {
-                    logMessage("Found file with unsupported file extension: '" + spriteFile.getName() + "'", true);
-                }
-            }
+        if (!completed) {
+            System.exit(1);
         }
     }
 
-    private static void convertAllEmissiveTextures(File outputFolder) {
-        for (EmissiveTextures emissiveTextures : emissiveTextures) {
-            convertEmissiveTextureFolder(emissiveTextures.getFolder(), outputFolder, emissiveTextures.getTextureName());
+    private static void exportLegacy(ConverterConfig config, List<String> paths) {
+        if (paths.size() < 3) {
+            System.err.println("The legacy export needs the converted stats folder and the texture & sprite folders to write to as arguments");
+            System.exit(1);
         }
-    }
 
-    private static void convertEmissiveTextureFolder(File textureFolder, File outputFolder, String textureName) {
-        for (File potentialEmissiveTexture : textureFolder.listFiles()) {
-            if (potentialEmissiveTexture.isDirectory()) {
-                convertEmissiveTextureFolder(potentialEmissiveTexture, outputFolder, textureName);
-            } else {
-                if (potentialEmissiveTexture.getName().endsWith(".png")) {
-                    String fileName = potentialEmissiveTexture.getName().replace(".png", "");
-                    fileName = fileName.strip();
-
-                    PokemonObject pokemon = createPokemonObjectFromName(fileName);
-
-                    File pokemonStatsFile = findPokemonStatsFile(outputFolder, pokemon.name);
-
-                    if (pokemonStatsFile == null) {
-                        FILE_ERROR_COUNT++;
-                        logMessage("Could not locate stats file for '" + pokemon + "'", true);
-                        erroredFiles.add(fileName);
-                        continue;
-                    }
-
-                    if (convertEmissiveTexture(pokemon, textureName, potentialEmissiveTexture.getName(), outputFolder, pokemonStatsFile)) {
-                        logMessage("Converted the emissive texture '" + textureName + "' for " + pokemon);
-                    } else {
-                        EMISSIVE_TEXTURE_ERROR_COUNT++;
-                        erroredEmissiveTextures.add(textureName + ": " + fileName);
-                        logMessage("An error occurred while trying to convert the sprite '" + textureName + "' for " + pokemon, true);
-                    }
-                } else {
-                    logMessage("Found file with unsupported file extension: '" + potentialEmissiveTexture.getName() + "'", true);
-                }
+        String resourcePath = paths.size() > 3 ? paths.get(3) : paths.get(0);
+        for (String path : List.of(paths.get(0), resourcePath)) {
+            PathValues pathResult = validatePath(path);
+            if (pathResult != PathValues.SUCCESS) {
+                System.err.println("'" + path + "': " + pathResult.getDescription());
+                System.exit(1);
             }
         }
-    }
-
-    private static boolean convertEmissiveTexture(PokemonObject pokemon, String textureName, String fileName, File outputFolder, File statsFile) {
-        try {
-            JsonObject pokemonObject = JsonParser.parseReader(new BufferedReader(new FileReader(statsFile))).getAsJsonObject();
-            String strippedTexture = textureName.replace("custom-", "");
-            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
-
-            String dexNum = String.format("%03d", pokemonObject.get("dex").getAsInt());
-            String name = pokemonObject.get("name").getAsString().toLowerCase(Locale.ROOT);
-
-            JsonArray forms = pokemonObject.getAsJsonArray("forms");
-
-            for (int i = 0; i < forms.size(); i++) {
-                JsonObject currentForm = forms.get(i).getAsJsonObject();
-
-                if (isForm(pokemon.getForm(), currentForm.get("name").getAsString(), pokemon.getName())) {
-                    JsonArray genderProperties = currentForm.get("genderProperties").getAsJsonArray();
-                    String gender = pokemon.getGender();
-
-                    String form = currentForm.get("name").getAsString().equals("") ? "base" : currentForm.get("name").getAsString();
-
-                    for (int k = 0; k < genderProperties.size(); k++) {
-                        JsonObject genderObject = genderProperties.get(k).getAsJsonObject();
 
-                        if (gender.equals("ALL") || genderObject.get("gender").getAsString().equalsIgnoreCase(gender)) {
-                            JsonArray allTextures = genderObject.getAsJsonArray("palettes");
+        config.setFolders(new File(paths.get(0)), new File(paths.get(1)), new File(paths.get(2)), null);
+        ConversionResult result = new LegacyExporter(config, new File(resourcePath)).export();
 
-                            for (int j = 0; j < allTextures.size(); j++) {
-                                JsonObject currentTexture = allTextures.get(j).getAsJsonObject();
-
-                                if (currentTexture.get("name").getAsString().equalsIgnoreCase(strippedTexture)) {
-                                    String genderString = genderObject.get("gender").getAsString().toLowerCase(Locale.ROOT);
-                                    currentTexture.addProperty("emissive", "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/"  + textureName + "/emissive.png");
-                                    return writeToFile(outputFolder, pokemonObject, statsFile.getName());
-                                }
-                            }
-                        }
-                    }
-                    return true;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            return false;
+        if (!result.isCompleted()) {
+            System.exit(1);
         }
     }
 
-    private static PokemonObject createPokemonObjectFromName(String name) {
-
-        String[] splittedArray = name.split("-");
-
-        String pokemonName;
-        String gender = "";
-        String formName;
-        boolean shiny = false;
-
-
-        for (int i = 0; i < splittedArray.length; i++) {
-            String current = splittedArray[i];
-
-            if (current.contains("female")) {
-                gender = "FEMALE";
-                current = current.replace("female", "");
-            } else if (current.contains("male")) {
-                current = current.replace("male", "");
-                gender = "MALE";
-            }
-
-            if (current.contains("shiny")) {
-                current = current.replace("shiny", "");
-                shiny = true;
-            }
-
-            splittedArray[i] = current;
+    private static void verify(ConverterConfig config, List<String> paths) {
+        if (paths.size() < 2) {
+            System.err.println("The verification needs the base stats folder and the output folder as arguments");
+            System.exit(1);
         }
 
-        if (gender.equals("")) {
-            gender = "ALL";
-        }
-
-        pokemonName = splittedArray[0];
-
-        switch (pokemonName) {
-            case "ho":
-                pokemonName = pokemonName + "oh";
-                formName = splittedArray.length > 2 ? joinArray(2, splittedArray) : "";
-                ;
-                break;
-            case "porygon":
-                if (splittedArray.length > 1) {
-                    if (splittedArray[1].equals("z")) {
-                        formName = splittedArray.length > 2 ? joinArray(2, splittedArray) : "";
-                        pokemonName = "porygon-z";
-                    } else {
-                        formName = joinArray(1, splittedArray);
-                    }
-                } else {
-                    formName = "";
-                }
-                break;
-            case "kommo":
-            case "jangmo":
-            case "hakamo":
-                pokemonName = pokemonName + "-o";
-                formName = splittedArray.length > 2 ? joinArray(2, splittedArray) : "";
-                break;
-            case "nidoran":
-                pokemonName = pokemonName + gender.toLowerCase();
-                gender = "ALL";
-                formName = splittedArray.length > 1 ? joinArray(1, splittedArray) : "";
-                break;
-            default:
-                formName = splittedArray.length > 1 ? joinArray(1, splittedArray) : "";
-                break;
-        }
-
-        if ((pokemonName.equals("darmanitan") || pokemonName.equals("555")) && formName.equals("standard")) {
-            formName = "";
-        }
-
-        switch (pokemonName) {
-            case "zygarde":
-                formName = formName.isBlank() ? "fifty_percent" : formName;
-                break;
-            case "mimikyu":
-                formName = formName.isBlank() ? "disguised" : formName;
-                break;
-            case "wishiwashi":
-                formName = formName.isBlank() ? "solo" : formName;
-                break;
-            case "cramorant":
-                formName = formName.isBlank() ? "gulping" : formName;
-                break;
-        }
-
-        if (formName.equals("normal")) {
-            formName = "";
-        }
-
-        switch (formName) {
-            case "alola":
-                formName = "alolan";
-                break;
-            case "galar":
-            case "galarstandard":
-                formName = "galarian";
-                break;
-            case "galarzen":
-                formName = "galarian_zen";
-                break;
-            case "incarnate":
-                formName = "therian";
-                break;
-        }
-
-        return new PokemonObject(pokemonName, gender, formName, shiny);
-    }
-
-    private static boolean convertSprite(File outputFolder, File pokeStatsFile, String textureName, String fileName, PokemonObject pokemon) {
-        try {
-            JsonObject pokemonObject = JsonParser.parseReader(new BufferedReader(new FileReader(pokeStatsFile))).getAsJsonObject();
-            String strippedTexture = textureName.replace("custom-", "");
-            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
-            String pokemonName = pokemonObject.get("name").getAsString().toLowerCase();
-
-            String dexNum = String.format("%03d", pokemonObject.get("dex").getAsInt());
-            String name = pokemonObject.get("name").getAsString().toLowerCase(Locale.ROOT);
-
-            JsonArray forms = pokemonObject.getAsJsonArray("forms");
-
-            for (int i = 0; i < forms.size(); i++) {
-                JsonObject currentForm = forms.get(i).getAsJsonObject();
-
-                if (isForm(pokemon.getForm(), currentForm.get("name").getAsString(), pokemon.getName())) {
-                    JsonArray genderProperties = currentForm.get("genderProperties").getAsJsonArray();
-                    String gender = pokemon.getGender();
-
-                    for (int k = 0; k < genderProperties.size(); k++) {
-                        JsonObject genderObject = genderProperties.get(k).getAsJsonObject();
-
-                        if (gender.equals("ALL") || genderObject.get("gender").getAsString().equalsIgnoreCase(gender)) {
-                            JsonArray allTextures = genderObject.getAsJsonArray("palettes");
-
-                            for (int j = 0; j < allTextures.size(); j++) {
-                                JsonObject currentTexture = allTextures.get(j).getAsJsonObject();
-
-                                if (currentTexture.get("name").getAsString().equals(strippedTexture)) {
-                                    String form = currentForm.get("name").getAsString().equals("") ? "base" : currentForm.get("name").getAsString();
-                                    String genderString = genderObject.get("gender").getAsString().toLowerCase(Locale.ROOT);
-                                    currentTexture.addProperty("sprite", "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/"  + textureName + "/sprite.png");
-
-                                    if (writeToFile(outputFolder, pokemonObject, pokeStatsFile.getName())) {
-                                        alreadyConvertedPokemon.add(pokemonName);
-                                        return true;
-                                    } else {
-                                        return false;
-                                    }
-                                }
-                            }
-                        }
-                    }
-                    return true;
-                }
+        String resourcePath = paths.size() > 2 ? paths.get(2) : paths.get(1);
+        for (String path : List.of(paths.get(0), paths.get(1), resourcePath)) {
+            PathValues pathResult = validatePath(path);
+            if (pathResult != PathValues.SUCCESS) {
+                System.err.println("'" + path + "': " + pathResult.getDescription());
+                System.exit(1);
             }
-            return false;
-        } catch (Exception e) {
-            return false;
         }
-    }
-
-    private static boolean convertPokemon(File statsFile, String textureName, String fileName, PokemonObject pokemon, File outputFolder) {
-        try {
-            JsonObject pokemonObject = JsonParser.parseReader(new BufferedReader(new FileReader(statsFile))).getAsJsonObject();
-            String strippedTexture = textureName.replace("custom-", "");
-            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
-            String pokemonName = pokemonObject.get("name").getAsString().toLowerCase();
-
-            String dexNum = String.format("%03d", pokemonObject.get("dex").getAsInt());
-            String name = pokemonObject.get("name").getAsString().toLowerCase(Locale.ROOT);
-
-            JsonArray forms = pokemonObject.getAsJsonArray("forms");
-
-            for (int i = 0; i < forms.size(); i++) {
-                JsonObject currentForm = forms.get(i).getAsJsonObject();
-
-                if (isForm(pokemon.getForm(), currentForm.get("name").getAsString(), pokemon.getName())) {
-                    JsonArray genderProperties = currentForm.get("genderProperties").getAsJsonArray();
-                    String gender = pokemon.getGender();
-
-                    int conversions = 0;
-
-                    for (int k = 0; k < genderProperties.size(); k++) {
-                        JsonObject genderObject = genderProperties.get(k).getAsJsonObject();
-
-                        if (genderObject.get("gender").getAsString().equalsIgnoreCase(gender)) {
-                            JsonArray currentTextures = genderObject.getAsJsonArray("palettes");
-
-                            JsonObject textureToAdd = new JsonObject();
-                            String form = currentForm.get("name").getAsString().equals("") ? "base" : currentForm.get("name").getAsString();
-                            String genderString = genderObject.get("gender").getAsString().toLowerCase(Locale.ROOT);
-
-                            textureToAdd.addProperty("name", strippedTexture);
-                            textureToAdd.addProperty("texture", "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/"  + textureName + "/texture.png");
-
-                            if (pokemon.isShiny()) {
-                                textureToAdd.addProperty("particle", "arcanery:shiny");
-                            }
-
-                            currentTextures.add(textureToAdd);
 
-                            if (writeToFile(outputFolder, pokemonObject, statsFile.getName())) {
-                                alreadyConvertedPokemon.add(pokemonName);
-                                conversions++;
-                            } else {
-                                logMessage("Couldnt write " + pokemonName + "to file");
-                                return false;
-                            }
-                        }
-                    }
-                    return conversions > 0;
-                }
-            }
-            return false;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
+        config.setFolders(new File(paths.get(0)), null, null, new File(paths.get(1)));
+        ConversionResult result = new ConversionVerifier(config, new File(resourcePath)).verify();
 
-    private static boolean isForm(String formName, String currentForm, String pokemonName) {
-        switch (pokemonName) {
-            case "unown":
-                return formName.equals("") || formName.equals(currentForm);
-            case "tornadus":
-                return (formName.equals("") && currentForm.equals("incarnate")) || formName.equals(currentForm);
+        if (!result.isCompleted()) {
+            System.exit(1);
         }
-
-        return formName.equals(currentForm);
     }
 
-    private static boolean writeToFile(File outputFolder, JsonObject object, String fileName) {
-        try {
-            File pokemonFile = new File(outputFolder, fileName);
-            BufferedWriter writer = new BufferedWriter(new FileWriter(pokemonFile));
-            writer.write(gson.toJson(object));
-            writer.flush();
-            writer.close();
-            return true;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
-    }
-
-    private static File findPokemonStatsFile(File outputFiles, File statsFiles, String pokemonName) {
-        if (alreadyConvertedPokemon.contains(pokemonName)) {
-            for (File convertedFile : outputFiles.listFiles()) {
-                if (convertedFile.isDirectory()) {
-                    findPokemonStatsFile(outputFiles, convertedFile, pokemonName);
-                    continue;
-                }
-
-                if (convertedFile.getName().contains(pokemonName + "_") || convertedFile.getName().contains(pokemonName + ".")) {
-                    return convertedFile;
-                }
-            }
-        } else {
-            for (File statsFile : statsFiles.listFiles()) {
-                if (statsFile.isDirectory()) {
-                    findPokemonStatsFile(outputFiles, statsFile, pokemonName);
-                    continue;
-                }
-
-                if (statsFile.getName().contains(pokemonName + "_") || statsFile.getName().contains(pokemonName + ".")) {
-                    return statsFile;
-                }
-            }
-        }
-        return null;
-    }
+    private static String askForPath(Scanner scanner, String question) {
+        PathValues tempResult;
 
-    private static File findPokemonStatsFile(File outputFiles, String dexNumber) {
-        for (File convertedFile : outputFiles.listFiles()) {
+        while (true) {
+            System.out.print(question);
+            String path = scanner.nextLine();
 
-            if (convertedFile.getName().contains(dexNumber)) {
-                return convertedFile;
+            if ((tempResult = validatePath(path)) == PathValues.SUCCESS) {
+                System.out.printf(tempResult.getDescription(), path);
+                return path;
+            } else {
+                System.err.println(tempResult.getDescription() + "\n");
             }
         }
-
-        return null;
     }
 
-    private static String joinArray(int indexFrom, String[] array) {
-        StringBuilder result = new StringBuilder();
+    private static PathValues validatePath(String path) {
 
-        for (int i = indexFrom; i < array.length; i++) {
-            result.append(array[i]);
+        if (path.isEmpty()) {
+            return PathValues.EMPTY;
         }
 
-        return result.toString();
-    }
-
-    private static void logMessage(String message) {
-        logMessage(message, false);
-    }
+        File file = new File(path);
 
-    private static void logMessage(String message, boolean error) {
-        if (error) {
-            System.err.println(message);
+        if (!file.exists()) {
+            return PathValues.NOT_EXIST;
         } else {
-            System.out.println(message);
-        }
-        try {
-            logWriter.write(message + "\n");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    private static void logResult(String message) {
-        System.out.println(message);
-
-        try {
-            resultWriter.write(message + "\n");
-        } catch (Exception e) {
-            e.printStackTrace();
+            if (!file.isDirectory()) {
+                return PathValues.NO_DIR;
+            }
+            return PathValues.SUCCESS;
         }
     }
 
@@ -699,62 +352,4 @@ public class Main {
             return description;
         }
     }
-
-    private static class PokemonObject {
-        private String name;
-        private String gender;
-        private String form;
-        private boolean shiny;
-
-        public PokemonObject(String name, String gender, String form, boolean shiny) {
-            this.name = name;
-            this.gender = gender;
-            this.form = form;
-            this.shiny = shiny;
-        }
-
-        public String getName() {
-            return name;
-        }
-
-        public String getGender() {
-            return gender;
-        }
-
-        public String getForm() {
-            return form;
-        }
-
-        public boolean isShiny() {
-            return shiny;
-        }
-
-        @Override
-        public String toString() {
-            return "PokemonObject{" +
-                    "name='" + name + '\'' +
-                    ", gender='" + gender + '\'' +
-                    ", form='" + form + '\'' +
-                    ", shiny=" + shiny +
-                    '}';
-        }
-    }
-
-    private static class EmissiveTextures {
-        private File folder;
-        private String textureName;
-
-        public EmissiveTextures(File folder, String textureName) {
-            this.folder = folder;
-            this.textureName = textureName;
-        }
-
-        public File getFolder() {
-            return folder;
-        }
-
-        public String getTextureName() {
-            return textureName;
-        }
-    }
 }
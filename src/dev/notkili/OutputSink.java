@@ -0,0 +1,12 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+
+// Destination of the converted stats files and the relocated pngs
+interface OutputSink extends ResourceSink {
+
+    // Returns the amount of bytes written
+    long writeStats(String fileName, PokemonStats stats, Gson gson) throws IOException;
+}
@@ -0,0 +1,202 @@
+package dev.notkili;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+
+// Walks the texture & sprite folders once each and classifies every png on the way. Folders with 'emissive' in their name
+// hold the emissive textures of the texture folder they are in, no matter how deep they are nested
+class PackScanner {
+    private PokemonNameParser nameParser;
+
+    private List<ScannedFile> textures = new ArrayList<>();
+    private List<ScannedFile> sprites = new ArrayList<>();
+    private List<ScannedFile> emissives = new ArrayList<>();
+    private List<String> unsupportedFiles = new ArrayList<>();
+    private List<String> unreadable = new ArrayList<>();
+    private int directories;
+    private long scanMillis;
+
+    public PackScanner(PokemonNameParser nameParser) {
+        this.nameParser = nameParser;
+    }
+
+    public void scan(File textureFolder, File spriteFolder) throws IOException {
+        long start = System.nanoTime();
+        walk(textureFolder.toPath(), true);
+        walk(spriteFolder.toPath(), false);
+        scanMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private void walk(Path root, boolean textureFolder) throws IOException {
+        // Texture name & whether it is an emissive folder, for every folder that is currently visited
+        Deque<Folder> folders = new ArrayDeque<>();
+
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                String name = dir.getFileName() == null ? dir.toString() : dir.getFileName().toString();
+                Folder parent = folders.peek();
+                directories++;
+
+                if (!textureFolder || parent == null) {
+                    folders.push(new Folder(name, false));
+                } else if (parent.emissive || name.contains("emissive")) {
+                    folders.push(new Folder(parent.textureName, true));
+                } else {
+                    folders.push(new Folder(name, false));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                String name = file.getFileName().toString();
+
+                if (!attributes.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (!name.endsWith(".png")) {
+                    unsupportedFiles.add(name);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                Folder folder = folders.peek();
+                String fileName = name.replace(".png", "").strip();
+                ScannedFile scanned = new ScannedFile(file.toFile(), fileName, folder.textureName, nameParser.parse(fileName),
+                        attributes.size(), attributes.lastModifiedTime().toMillis());
+
+                if (!textureFolder) {
+                    sprites.add(scanned);
+                } else if (folder.emissive) {
+                    emissives.add(scanned);
+                } else {
+                    textures.add(scanned);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                unreadable.add(file.toString() + " (" + e.getMessage() + ")");
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                folders.pop();
+                if (e != null) {
+                    unreadable.add(dir.toString() + " (" + e.getMessage() + ")");
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public List<ScannedFile> getTextures() {
+        return textures;
+    }
+
+    public List<ScannedFile> getSprites() {
+        return sprites;
+    }
+
+    public List<ScannedFile> getEmissives() {
+        return emissives;
+    }
+
+    // Names of the files that aren't pngs
+    public List<String> getUnsupportedFiles() {
+        return unsupportedFiles;
+    }
+
+    // Files & folders that couldn't be read
+    public List<String> getUnreadable() {
+        return unreadable;
+    }
+
+    // Path, size & modification time of every png, changes whenever a png is added, removed or edited
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (List<ScannedFile> files : List.of(textures, sprites, emissives)) {
+            for (ScannedFile file : files) {
+                description.append(file.getFile().getPath()).append('|').append(file.getSize()).append('|').append(file.getModified()).append('\n');
+            }
+        }
+        return description.toString();
+    }
+
+    public int getFileCount() {
+        return textures.size() + sprites.size() + emissives.size() + unsupportedFiles.size();
+    }
+
+    public int getDirectories() {
+        return directories;
+    }
+
+    public long getScanMillis() {
+        return scanMillis;
+    }
+
+    public static class ScannedFile {
+        private File file;
+        private String fileName;
+        private String textureName;
+        private PokemonObject pokemon;
+        private long size;
+        private long modified;
+
+        public ScannedFile(File file, String fileName, String textureName, PokemonObject pokemon, long size, long modified) {
+            this.file = file;
+            this.fileName = fileName;
+            this.textureName = textureName;
+            this.pokemon = pokemon;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getTextureName() {
+            return textureName;
+        }
+
+        public PokemonObject getPokemon() {
+            return pokemon;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+    }
+
+    private static class Folder {
+        private String textureName;
+        private boolean emissive;
+
+        public Folder(String textureName, boolean emissive) {
+            this.textureName = textureName;
+            this.emissive = emissive;
+        }
+    }
+}
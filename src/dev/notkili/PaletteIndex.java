@@ -0,0 +1,87 @@
+package dev.notkili;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+// Forms, gender properties & palettes of one stats document, keyed by (form, gender, palette name), so converters
+// don't have to scan the nested 'forms' -> 'genderProperties' -> 'palettes' lists for every texture.
+// Holds references into the document, palettes added through it are added to the document as well
+class PaletteIndex {
+    private HashMap<String, Integer> formPositions = new HashMap<>();
+    private List<String> formNames = new ArrayList<>();
+    private HashMap<String, List<PokemonStats.Gender>> genderProperties = new HashMap<>();
+    private HashMap<String, PokemonStats.Palette> palettes = new HashMap<>();
+
+    public PaletteIndex(PokemonStats stats) {
+        List<PokemonStats.Form> forms = stats.getForms();
+
+        for (int i = 0; i < forms.size(); i++) {
+            PokemonStats.Form form = forms.get(i);
+            String formName = form.getName();
+
+            // Only the first form of a name was ever matched
+            if (formName == null || formPositions.putIfAbsent(formName, i) != null) {
+                continue;
+            }
+            formNames.add(formName);
+
+            for (PokemonStats.Gender gender : form.getGenderProperties()) {
+                for (PokemonStats.Palette palette : gender.getPalettes()) {
+                    if (palette.getName() != null) {
+                        palettes.putIfAbsent(getKey(formName, gender, palette.getName()), palette);
+                    }
+                }
+            }
+            genderProperties.put(formName, form.getGenderProperties());
+        }
+    }
+
+    // The form of the document the parsed form belongs to, or null if there is none
+    public String findForm(String pokemonName, String formName) {
+        if (formName.equals("")) {
+            switch (pokemonName) {
+                case "unown":
+                    // Any form, the first one of the document
+                    return formNames.isEmpty() ? null : formNames.get(0);
+                case "tornadus":
+                    // Whichever of the base & incarnate form comes first
+                    int base = formPositions.getOrDefault("", Integer.MAX_VALUE);
+                    int incarnate = formPositions.getOrDefault("incarnate", Integer.MAX_VALUE);
+                    if (base == Integer.MAX_VALUE && incarnate == Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    return base < incarnate ? "" : "incarnate";
+            }
+        }
+
+        return formPositions.containsKey(formName) ? formName : null;
+    }
+
+    public List<PokemonStats.Gender> getGenderProperties(String formName) {
+        return genderProperties.getOrDefault(formName, Collections.emptyList());
+    }
+
+    public PokemonStats.Palette findPalette(String formName, PokemonStats.Gender gender, String paletteName) {
+        return palettes.get(getKey(formName, gender, paletteName));
+    }
+
+    // Returns the palette of that name, which is created & appended to the gender's palettes if it doesn't exist yet
+    public PokemonStats.Palette getOrAddPalette(String formName, PokemonStats.Gender gender, String paletteName) {
+        String key = getKey(formName, gender, paletteName);
+        PokemonStats.Palette palette = palettes.get(key);
+
+        if (palette == null) {
+            palette = gender.addPalette(paletteName);
+            palettes.put(key, palette);
+        }
+
+        return palette;
+    }
+
+    private static String getKey(String formName, PokemonStats.Gender gender, String paletteName) {
+        return formName + '|' + gender.getGender().toUpperCase(Locale.ROOT) + '|' + paletteName.toLowerCase(Locale.ROOT);
+    }
+}
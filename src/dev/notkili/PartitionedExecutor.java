@@ -0,0 +1,84 @@
+package dev.notkili;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Runs work items in parallel while keeping every item of the same partition (stats file) on one thread, in their original order
+class PartitionedExecutor {
+    private int threads;
+
+    public PartitionedExecutor(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public <T> void execute(List<T> items, Function<T, String> partitionKey, Consumer<T> action) {
+        if (threads == 1) {
+            for (T item : items) {
+                action.accept(item);
+            }
+            return;
+        }
+
+        LinkedHashMap<String, List<T>> partitions = new LinkedHashMap<>();
+        for (T item : items) {
+            partitions.computeIfAbsent(partitionKey.apply(item), key -> new ArrayList<>()).add(item);
+        }
+
+        run(new ArrayList<>(partitions.values()), action);
+    }
+
+    // Every item is independent of the others
+    public <T> void executeEach(List<T> items, Consumer<T> action) {
+        if (threads == 1) {
+            for (T item : items) {
+                action.accept(item);
+            }
+            return;
+        }
+
+        List<List<T>> partitions = new ArrayList<>();
+        for (T item : items) {
+            partitions.add(Collections.singletonList(item));
+        }
+
+        run(partitions, action);
+    }
+
+    private <T> void run(List<List<T>> partitions, Consumer<T> action) {
+        List<Callable<Void>> jobs = new ArrayList<>();
+        for (List<T> partition : partitions) {
+            jobs.add(() -> {
+                for (T item : partition) {
+                    action.accept(item);
+                }
+                return null;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (Future<Void> job : pool.invokeAll(jobs)) {
+                job.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A conversion thread failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,101 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Size & header of every png the last run looked at, by path. Reused while a png's size & modification time are unchanged,
+// so repeated runs don't have to open unchanged pngs at all
+class PngCache {
+    private static final int VERSION = 1;
+
+    private ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public static File getFile(File output) {
+        return SidecarFile.getFile(output, ".pngs.json");
+    }
+
+    public static PngCache load(File file) {
+        PngCache cache = SidecarFile.load(file, VERSION, root -> {
+            PngCache loaded = new PngCache();
+            for (Map.Entry<String, JsonElement> png : root.getAsJsonObject("pngs").entrySet()) {
+                JsonObject entry = png.getValue().getAsJsonObject();
+                loaded.entries.put(png.getKey(), new Entry(entry.get("size").getAsLong(), entry.get("modified").getAsLong(), entry.get("width").getAsInt(),
+                        entry.get("height").getAsInt(), entry.has("error") ? entry.get("error").getAsString() : null));
+            }
+            return loaded;
+        });
+        return cache != null ? cache : new PngCache();
+    }
+
+    public void save(File file) throws IOException {
+        SidecarFile.save(file, VERSION, root -> {
+            JsonObject pngs = new JsonObject();
+            for (Map.Entry<String, Entry> png : new TreeMap<>(entries).entrySet()) {
+                Entry entry = png.getValue();
+                JsonObject object = new JsonObject();
+                object.addProperty("size", entry.getSize());
+                object.addProperty("modified", entry.getModified());
+                object.addProperty("width", entry.getWidth());
+                object.addProperty("height", entry.getHeight());
+                if (entry.getError() != null) {
+                    object.addProperty("error", entry.getError());
+                }
+                pngs.add(png.getKey(), object);
+            }
+            root.add("pngs", pngs);
+        });
+    }
+
+    // The cached entry, or null if the png changed since it was cached
+    public Entry get(File png, long size, long modified) {
+        Entry entry = entries.get(png.getAbsolutePath());
+        return entry != null && entry.getSize() == size && entry.getModified() == modified ? entry : null;
+    }
+
+    public void put(File png, Entry entry) {
+        entries.put(png.getAbsolutePath(), entry);
+    }
+
+    public static class Entry {
+        private long size;
+        private long modified;
+        private int width;
+        private int height;
+        private String error;
+
+        public Entry(long size, long modified, int width, int height, String error) {
+            this.size = size;
+            this.modified = modified;
+            this.width = width;
+            this.height = height;
+            this.error = error;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        // Why the png is broken, null if it is a valid png
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package dev.notkili;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+// Reads the signature & header chunk of every png, never the image data, and checks them against what minecraft expects.
+// Broken pngs are left out of the conversion, pngs of an unexpected size are only warned about
+class PngValidator {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    // Signature, then length, type, 13 bytes of data & crc of the header chunk
+    private static final int HEADER_LENGTH = 33;
+
+    private PngCache previous;
+    private PngCache cache = new PngCache();
+
+    private List<String> invalid = new ArrayList<>();
+    private List<String> warnings = new ArrayList<>();
+    private AtomicInteger validated = new AtomicInteger();
+    private AtomicInteger cached = new AtomicInteger();
+
+    public PngValidator(PngCache previous) {
+        this.previous = previous;
+    }
+
+    // Returns the valid pngs, in their original order
+    public List<PackScanner.ScannedFile> validate(List<PackScanner.ScannedFile> files, Kind kind, PartitionedExecutor executor, RunMetrics metrics) {
+        PngCache.Entry[] entries = new PngCache.Entry[files.size()];
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            indices.add(i);
+        }
+
+        executor.executeEach(indices, i -> entries[i] = inspect(files.get(i), metrics));
+
+        List<PackScanner.ScannedFile> valid = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            PackScanner.ScannedFile file = files.get(i);
+            PngCache.Entry entry = entries[i];
+
+            if (entry.getError() != null) {
+                invalid.add(file.getFile().getPath() + " (" + entry.getError() + ")");
+                continue;
+            }
+
+            String warning = kind.check(entry.getWidth(), entry.getHeight());
+            if (warning != null) {
+                warnings.add(file.getFile().getPath() + " (" + entry.getWidth() + "x" + entry.getHeight() + ", " + warning + ")");
+            }
+            valid.add(file);
+        }
+        return valid;
+    }
+
+    private PngCache.Entry inspect(PackScanner.ScannedFile file, RunMetrics metrics) {
+        validated.incrementAndGet();
+
+        PngCache.Entry entry = previous.get(file.getFile(), file.getSize(), file.getModified());
+        if (entry != null) {
+            cached.incrementAndGet();
+            cache.put(file.getFile(), entry);
+            return entry;
+        }
+
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(file.getFile().toPath())) {
+            byte[] header = in.readNBytes(HEADER_LENGTH);
+            metrics.read(RunMetrics.Phase.VALIDATE, header.length);
+            entry = readHeader(header, file.getSize(), file.getModified());
+            cache.put(file.getFile(), entry);
+        } catch (IOException e) {
+            // Not cached, the png may be readable next time
+            entry = new PngCache.Entry(file.getSize(), file.getModified(), 0, 0, "couldnt be read: " + e.getMessage());
+        }
+        metrics.record(RunMetrics.Phase.VALIDATE, start);
+
+        return entry;
+    }
+
+    private static PngCache.Entry readHeader(byte[] header, long size, long modified) {
+        if (header.length < SIGNATURE.length || !Arrays.equals(Arrays.copyOf(header, SIGNATURE.length), SIGNATURE)) {
+            return new PngCache.Entry(size, modified, 0, 0, "not a png");
+        }
+        if (header.length < HEADER_LENGTH) {
+            return new PngCache.Entry(size, modified, 0, 0, "truncated header");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(header);
+        String type = new String(header, 12, 4, StandardCharsets.US_ASCII);
+        if (buffer.getInt(8) != 13 || !type.equals("IHDR")) {
+            return new PngCache.Entry(size, modified, 0, 0, "missing header chunk");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(header, 12, 17);
+        if ((int) crc.getValue() != buffer.getInt(29)) {
+            return new PngCache.Entry(size, modified, 0, 0, "corrupt header chunk");
+        }
+
+        int width = buffer.getInt(16);
+        int height = buffer.getInt(20);
+        if (width <= 0 || height <= 0) {
+            return new PngCache.Entry(size, modified, width, height, "invalid size " + width + "x" + height);
+        }
+
+        return new PngCache.Entry(size, modified, width, height, null);
+    }
+
+    private static boolean isPowerOfTwo(int value) {
+        return (value & (value - 1)) == 0;
+    }
+
+    // Only holds the pngs of this run, so deleted pngs drop out of the cache
+    public PngCache getCache() {
+        return cache;
+    }
+
+    // Path & reason of every broken png
+    public List<String> getInvalid() {
+        return invalid;
+    }
+
+    // Path, size & expectation of every png with an unexpected size
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public int getValidated() {
+        return validated.get();
+    }
+
+    public int getCached() {
+        return cached.get();
+    }
+
+    enum Kind {
+        TEXTURE,
+        SPRITE,
+        EMISSIVE;
+
+        // What is unexpected about the size, null if nothing
+        public String check(int width, int height) {
+            if (this == SPRITE) {
+                return width == height ? null : "sprites should be square";
+            }
+            // The emissive layer is drawn over the texture, so both follow the same rules
+            return isPowerOfTwo(width) && isPowerOfTwo(height) ? null : "textures should be a power of two";
+        }
+    }
+}
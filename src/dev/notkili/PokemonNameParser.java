@@ -0,0 +1,295 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Turns legacy file names like 'pikachu-alola-female-shiny' into a PokemonObject. Every special case (multi part names, gendered names,
+// default forms & form aliases) comes from an alias table, the built in one is 'pokemon-aliases.json' next to this class.
+// Results are cached per file name, so every name is only parsed once per run
+class PokemonNameParser {
+    private static final String DEFAULT_TABLE = "pokemon-aliases.json";
+    private static final HashSet<String> EMPTY = new HashSet<>();
+
+    private HashMap<String, String> genders = new HashMap<>();
+    private HashSet<String> shinyTokens = new HashSet<>();
+    // First token -> every multi part name starting with it, longest first
+    private HashMap<String, List<String[]>> compoundNames = new HashMap<>();
+    private HashMap<String, String> compoundTargets = new HashMap<>();
+    private HashSet<String> genderedNames = new HashSet<>();
+    private HashMap<String, HashSet<String>> ignoredForms = new HashMap<>();
+    private HashMap<String, String> defaultForms = new HashMap<>();
+    private HashMap<String, String> formAliases = new HashMap<>();
+    private String fingerprint;
+
+    // Inverse tables for toFileName, if several tokens map to the same value the first one of the table is used
+    private HashMap<String, String> legacyGenders = new HashMap<>();
+    private String legacyShiny;
+    private HashMap<String, String> legacyNames = new HashMap<>();
+    private HashMap<String, String[]> legacyGenderedNames = new HashMap<>();
+    private HashMap<String, String> legacyForms = new HashMap<>();
+
+    private ConcurrentHashMap<String, PokemonObject> parsed = new ConcurrentHashMap<>();
+    private List<String> ambiguities = Collections.synchronizedList(new ArrayList<>());
+
+    private PokemonNameParser(String table) {
+        JsonObject root = JsonParser.parseString(table).getAsJsonObject();
+        fingerprint = ContentHash.of(table);
+
+        for (Map.Entry<String, JsonElement> gender : root.getAsJsonObject("genders").entrySet()) {
+            genders.put(token(gender.getKey()), gender.getValue().getAsString().toUpperCase(Locale.ROOT));
+            legacyGenders.putIfAbsent(gender.getValue().getAsString().toUpperCase(Locale.ROOT), token(gender.getKey()));
+        }
+        for (JsonElement shiny : root.getAsJsonArray("shiny")) {
+            shinyTokens.add(token(shiny.getAsString()));
+            if (legacyShiny == null) {
+                legacyShiny = token(shiny.getAsString());
+            }
+        }
+        for (Map.Entry<String, JsonElement> name : root.getAsJsonObject("names").entrySet()) {
+            String[] tokens = token(name.getKey()).split("-");
+            compoundNames.computeIfAbsent(tokens[0], key -> new ArrayList<>()).add(tokens);
+            compoundTargets.put(String.join("-", tokens), token(name.getValue().getAsString()));
+            legacyNames.putIfAbsent(token(name.getValue().getAsString()), String.join("-", tokens));
+        }
+        for (List<String[]> names : compoundNames.values()) {
+            names.sort((a, b) -> b.length - a.length);
+        }
+        for (JsonElement name : root.getAsJsonArray("genderedNames")) {
+            genderedNames.add(token(name.getAsString()));
+            for (Map.Entry<String, String> gender : legacyGenders.entrySet()) {
+                legacyGenderedNames.putIfAbsent(token(name.getAsString()) + gender.getKey().toLowerCase(Locale.ROOT), new String[]{token(name.getAsString()), gender.getValue()});
+            }
+        }
+        for (Map.Entry<String, JsonElement> forms : root.getAsJsonObject("ignoredForms").entrySet()) {
+            HashSet<String> ignored = ignoredForms.computeIfAbsent(token(forms.getKey()), key -> new HashSet<>());
+            for (JsonElement form : forms.getValue().getAsJsonArray()) {
+                ignored.add(token(form.getAsString()));
+            }
+        }
+        for (Map.Entry<String, JsonElement> form : root.getAsJsonObject("defaultForms").entrySet()) {
+            defaultForms.put(token(form.getKey()), token(form.getValue().getAsString()));
+        }
+        for (Map.Entry<String, JsonElement> form : root.getAsJsonObject("forms").entrySet()) {
+            formAliases.put(token(form.getKey()), token(form.getValue().getAsString()));
+            legacyForms.putIfAbsent(token(form.getValue().getAsString()), token(form.getKey()));
+        }
+    }
+
+    public static PokemonNameParser load(File aliasFile) throws IOException {
+        if (aliasFile == null) {
+            return loadDefault();
+        }
+        return new PokemonNameParser(new String(Files.readAllBytes(aliasFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    public static PokemonNameParser loadDefault() throws IOException {
+        try (InputStream stream = PokemonNameParser.class.getResourceAsStream(DEFAULT_TABLE)) {
+            if (stream == null) {
+                throw new IOException("The built in alias table '" + DEFAULT_TABLE + "' is missing");
+            }
+
+            StringBuilder table = new StringBuilder();
+            try (Reader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                char[] buffer = new char[8192];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    table.append(buffer, 0, read);
+                }
+            }
+            return new PokemonNameParser(table.toString());
+        }
+    }
+
+    public PokemonObject parse(String fileName) {
+        PokemonObject pokemon = parsed.get(fileName);
+        if (pokemon == null) {
+            pokemon = parsed.computeIfAbsent(fileName, name -> parseName(name, ambiguities));
+        }
+        return pokemon;
+    }
+
+    // Anything suspicious about the name goes into problems
+    private PokemonObject parseName(String fileName, List<String> problems) {
+        List<String> tokens = new ArrayList<>();
+        String gender = null;
+        boolean shiny = false;
+
+        // Genders & shiny are only recognized as whole tokens, i.e. 'pikachu-female', but never inside another token
+        int start = 0;
+        while (start <= fileName.length()) {
+            int end = fileName.indexOf('-', start);
+            if (end < 0) {
+                end = fileName.length();
+            }
+
+            String token = fileName.substring(start, end);
+            String tokenGender = genders.get(token);
+
+            if (tokenGender != null) {
+                if (gender != null && !gender.equals(tokenGender)) {
+                    problems.add("'" + fileName + "' has more than one gender, using " + tokenGender);
+                }
+                gender = tokenGender;
+            } else if (shinyTokens.contains(token)) {
+                shiny = true;
+            } else {
+                checkEmbeddedKeywords(fileName, token, problems);
+                tokens.add(token);
+            }
+
+            start = end + 1;
+        }
+
+        if (gender == null) {
+            gender = "ALL";
+        }
+
+        int nameLength = 1;
+        String name = tokens.isEmpty() ? "" : tokens.get(0);
+
+        for (String[] compound : compoundNames.getOrDefault(name, Collections.emptyList())) {
+            if (startsWith(tokens, compound)) {
+                nameLength = compound.length;
+                name = compoundTargets.get(String.join("-", compound));
+                break;
+            }
+        }
+
+        if (genderedNames.contains(name)) {
+            if (gender.equals("ALL")) {
+                problems.add("'" + fileName + "' needs a gender to find the stats file of " + name);
+            }
+            name = name + gender.toLowerCase(Locale.ROOT);
+            gender = "ALL";
+        }
+
+        StringBuilder form = new StringBuilder();
+        for (int i = nameLength; i < tokens.size(); i++) {
+            form.append(tokens.get(i));
+        }
+        String formName = form.toString();
+
+        if (ignoredForms.getOrDefault(name, EMPTY).contains(formName)) {
+            formName = "";
+        }
+        if (formName.isBlank()) {
+            formName = defaultForms.getOrDefault(name, formName);
+        }
+        formName = formAliases.getOrDefault(formName, formName);
+
+        return new PokemonObject(name.intern(), gender, formName.intern(), shiny);
+    }
+
+    // Inverse of parse, the legacy '<name>-<form>-<gender>-shiny' file name of a palette. Sprites & emissive textures are named after
+    // the dex number instead of the name. Null if there is no name that parses back to the same pokemon, form, gender & shininess
+    public String toFileName(String name, String dex, String form, String gender, boolean shiny) {
+        String key = dex != null ? dex : name;
+        StringBuilder fileName = new StringBuilder();
+        String expectedGender = gender;
+
+        if (dex != null) {
+            fileName.append(dex);
+        } else if (legacyGenderedNames.containsKey(name)) {
+            // The gender is part of the name, i.e. 'nidoran-female'
+            String[] parts = legacyGenderedNames.get(name);
+            fileName.append(legacyNames.getOrDefault(parts[0], parts[0])).append('-').append(parts[1]);
+            expectedGender = "ALL";
+        } else {
+            fileName.append(legacyNames.getOrDefault(name, name));
+        }
+
+        String formToken;
+        if (form.equals(defaultForms.get(key))) {
+            formToken = "";
+        } else if (form.isEmpty()) {
+            // Only needs a token if a blank form would turn into the default form
+            formToken = defaultForms.containsKey(key) ? legacyForms.getOrDefault("", "") : "";
+        } else {
+            formToken = legacyForms.getOrDefault(form, form);
+        }
+        if (!formToken.isEmpty()) {
+            fileName.append('-').append(formToken);
+        }
+
+        if (!expectedGender.equals("ALL")) {
+            fileName.append('-').append(legacyGenders.getOrDefault(expectedGender, expectedGender.toLowerCase(Locale.ROOT)));
+        }
+        if (shiny) {
+            if (legacyShiny == null) {
+                return null;
+            }
+            fileName.append('-').append(legacyShiny);
+        }
+
+        // Names built here aren't files of the pack, so neither their problems nor their results belong to the run
+        PokemonObject parsed = parseName(fileName.toString(), new ArrayList<>());
+        if (!parsed.getName().equals(key) || !parsed.getForm().equals(form) || !parsed.getGender().equals(expectedGender) || parsed.isShiny() != shiny) {
+            return null;
+        }
+        return fileName.toString();
+    }
+
+    // The old parser stripped these words from anywhere in the name, i.e. 'pikachushiny' was a shiny pikachu
+    private void checkEmbeddedKeywords(String fileName, String token, List<String> problems) {
+        for (String keyword : genders.keySet()) {
+            if (token.contains(keyword)) {
+                problems.add("'" + fileName + "' contains '" + keyword + "' inside of '" + token + "', separate it with '-' if it is meant as gender");
+                return;
+            }
+        }
+        for (String keyword : shinyTokens) {
+            if (token.contains(keyword)) {
+                problems.add("'" + fileName + "' contains '" + keyword + "' inside of '" + token + "', separate it with '-' if it is meant as shiny");
+                return;
+            }
+        }
+    }
+
+    private static boolean startsWith(List<String> tokens, String[] prefix) {
+        if (tokens.size() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (!tokens.get(i).equals(prefix[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String token(String value) {
+        return value.toLowerCase(Locale.ROOT).intern();
+    }
+
+    // Changes whenever the alias table does
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<String> getAmbiguities() {
+        List<String> sorted;
+        synchronized (ambiguities) {
+            sorted = new ArrayList<>(ambiguities);
+        }
+        sorted.sort(String::compareTo);
+        return sorted;
+    }
+}
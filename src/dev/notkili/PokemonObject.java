@@ -0,0 +1,41 @@
+package dev.notkili;
+
+class PokemonObject {
+    private String name;
+    private String gender;
+    private String form;
+    private boolean shiny;
+
+    public PokemonObject(String name, String gender, String form, boolean shiny) {
+        this.name = name;
+        this.gender = gender;
+        this.form = form;
+        this.shiny = shiny;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public String getForm() {
+        return form;
+    }
+
+    public boolean isShiny() {
+        return shiny;
+    }
+
+    @Override
+    public String toString() {
+        return "PokemonObject{" +
+                "name='" + name + '\'' +
+                ", gender='" + gender + '\'' +
+                ", form='" + form + '\'' +
+                ", shiny=" + shiny +
+                '}';
+    }
+}
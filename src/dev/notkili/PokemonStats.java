@@ -0,0 +1,343 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+// One stats file: pokemon -> forms -> gender properties -> palettes. Only the members the converter uses are typed,
+// everything else (stats, moves, evolutions, ...) is passed through as parsed
+class PokemonStats extends StatsNode {
+    private String name;
+    private List<Form> forms;
+
+    public static PokemonStats read(Reader in) throws IOException {
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new JsonSyntaxException("A stats file has to be a json object");
+        }
+
+        PokemonStats stats = new PokemonStats();
+        stats.read(reader);
+
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+        return stats;
+    }
+
+    // Streamed, with the indentation & escaping of the given gson
+    public void write(Writer out, Gson gson) throws IOException {
+        JsonWriter writer = gson.newJsonWriter(out);
+        writer.setLenient(true);
+        write(writer, gson.getAdapter(JsonElement.class));
+        writer.flush();
+    }
+
+    // The typed members are copied, the untyped ones are shared as they are never modified
+    public PokemonStats copy() {
+        PokemonStats copy = new PokemonStats();
+        copy.copyMembers(this);
+        copy.name = name;
+
+        if (forms != null) {
+            copy.forms = new ArrayList<>(forms.size());
+            for (Form form : forms) {
+                copy.forms.add(form.copy());
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    protected boolean readMember(String key, JsonReader reader) throws IOException {
+        switch (key) {
+            case "name":
+                name = readString(reader);
+                return name != null;
+            case "forms":
+                if (!isArray(reader)) {
+                    return false;
+                }
+                forms = readList(reader, Form::new);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    protected void writeMember(String key, JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException {
+        switch (key) {
+            case "name":
+                writer.name(key).value(name);
+                break;
+            case "forms":
+                writeList(writer, key, forms, elements);
+                break;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDex() {
+        JsonElement dex = getUnknown("dex");
+        if (dex == null) {
+            throw new IllegalStateException("The stats file has no dex number");
+        }
+        return dex.getAsInt();
+    }
+
+    // Empty if the stats file has none
+    public List<Form> getForms() {
+        return forms == null ? List.of() : forms;
+    }
+
+    public static class Form extends StatsNode {
+        private String name;
+        private List<Gender> genderProperties;
+
+        private Form copy() {
+            Form copy = new Form();
+            copy.copyMembers(this);
+            copy.name = name;
+
+            if (genderProperties != null) {
+                copy.genderProperties = new ArrayList<>(genderProperties.size());
+                for (Gender gender : genderProperties) {
+                    copy.genderProperties.add(gender.copy());
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        protected boolean readMember(String key, JsonReader reader) throws IOException {
+            switch (key) {
+                case "name":
+                    name = intern(readString(reader));
+                    return name != null;
+                case "genderProperties":
+                    if (!isArray(reader)) {
+                        return false;
+                    }
+                    genderProperties = readList(reader, Gender::new);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected void writeMember(String key, JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException {
+            switch (key) {
+                case "name":
+                    writer.name(key).value(name);
+                    break;
+                case "genderProperties":
+                    writeList(writer, key, genderProperties, elements);
+                    break;
+            }
+        }
+
+        // Null if the form has no name
+        public String getName() {
+            return name;
+        }
+
+        public List<Gender> getGenderProperties() {
+            return genderProperties == null ? List.of() : genderProperties;
+        }
+    }
+
+    public static class Gender extends StatsNode {
+        private String gender;
+        private List<Palette> palettes;
+
+        private Gender copy() {
+            Gender copy = new Gender();
+            copy.copyMembers(this);
+            copy.gender = gender;
+
+            if (palettes != null) {
+                copy.palettes = new ArrayList<>(palettes.size());
+                for (Palette palette : palettes) {
+                    copy.palettes.add(palette.copy());
+                }
+            }
+            return copy;
+        }
+
+        @Override
+        protected boolean readMember(String key, JsonReader reader) throws IOException {
+            switch (key) {
+                case "gender":
+                    gender = intern(readString(reader));
+                    return gender != null;
+                case "palettes":
+                    if (!isArray(reader)) {
+                        return false;
+                    }
+                    palettes = readList(reader, Palette::new);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected void writeMember(String key, JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException {
+            switch (key) {
+                case "gender":
+                    writer.name(key).value(gender);
+                    break;
+                case "palettes":
+                    writeList(writer, key, palettes, elements);
+                    break;
+            }
+        }
+
+        // As written in the stats file, i.e. 'MALE'
+        public String getGender() {
+            return gender;
+        }
+
+        public List<Palette> getPalettes() {
+            return palettes == null ? List.of() : palettes;
+        }
+
+        public Palette addPalette(String name) {
+            Palette palette = new Palette();
+            palette.setName(name);
+
+            if (palettes == null) {
+                palettes = new ArrayList<>();
+                set("palettes");
+            }
+            palettes.add(palette);
+            return palette;
+        }
+    }
+
+    public static class Palette extends StatsNode {
+        private String name;
+        private String texture;
+        private String sprite;
+        private String emissive;
+        private String particle;
+
+        private Palette copy() {
+            Palette copy = new Palette();
+            copy.copyMembers(this);
+            copy.name = name;
+            copy.texture = texture;
+            copy.sprite = sprite;
+            copy.emissive = emissive;
+            copy.particle = particle;
+            return copy;
+        }
+
+        @Override
+        protected boolean readMember(String key, JsonReader reader) throws IOException {
+            switch (key) {
+                case "name":
+                    name = intern(readString(reader));
+                    return name != null;
+                case "texture":
+                    texture = readString(reader);
+                    return texture != null;
+                case "sprite":
+                    sprite = readString(reader);
+                    return sprite != null;
+                case "emissive":
+                    emissive = readString(reader);
+                    return emissive != null;
+                case "particle":
+                    particle = intern(readString(reader));
+                    return particle != null;
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        protected void writeMember(String key, JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException {
+            switch (key) {
+                case "name":
+                    writer.name(key).value(name);
+                    break;
+                case "texture":
+                    writer.name(key).value(texture);
+                    break;
+                case "sprite":
+                    writer.name(key).value(sprite);
+                    break;
+                case "emissive":
+                    writer.name(key).value(emissive);
+                    break;
+                case "particle":
+                    writer.name(key).value(particle);
+                    break;
+            }
+        }
+
+        // Null if the palette has no name
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+            set("name");
+        }
+
+        public String getTexture() {
+            return texture;
+        }
+
+        public void setTexture(String texture) {
+            this.texture = texture;
+            set("texture");
+        }
+
+        public String getSprite() {
+            return sprite;
+        }
+
+        public void setSprite(String sprite) {
+            this.sprite = sprite;
+            set("sprite");
+        }
+
+        public String getEmissive() {
+            return emissive;
+        }
+
+        public void setEmissive(String emissive) {
+            this.emissive = emissive;
+            set("emissive");
+        }
+
+        public String getParticle() {
+            return particle;
+        }
+
+        public void setParticle(String particle) {
+            this.particle = particle;
+            set("particle");
+        }
+    }
+}
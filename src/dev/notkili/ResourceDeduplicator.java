@@ -0,0 +1,134 @@
+package dev.notkili;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Finds the emitted pngs that have the same content, i.e. one texture used for both genders or for several forms.
+// Every group gets a canonical location (the first one alphabetically), the palettes can be pointed at it instead of their own copy
+class ResourceDeduplicator {
+    // Duplicate location -> canonical location
+    private HashMap<String, String> canonicalLocations = new HashMap<>();
+    private List<String> groups = new ArrayList<>();
+    private List<List<String>> sourceGroups = new ArrayList<>();
+    private long duplicateBytes;
+    private int redirected;
+
+    public void find(List<ResourceEmitter.ResourceCopy> copies, PartitionedExecutor executor, RunMetrics metrics) {
+        // Only pngs sharing their size with another png can have the same content, so only those are hashed
+        LinkedHashMap<String, File> sources = new LinkedHashMap<>();
+        HashMap<Long, Integer> sizes = new HashMap<>();
+        for (ResourceEmitter.ResourceCopy copy : copies) {
+            if (sources.putIfAbsent(copy.getSource().getAbsolutePath(), copy.getSource()) == null) {
+                sizes.merge(copy.getSource().length(), 1, Integer::sum);
+            }
+        }
+
+        List<File> candidates = new ArrayList<>();
+        for (File source : sources.values()) {
+            if (sizes.get(source.length()) > 1) {
+                candidates.add(source);
+            }
+        }
+
+        ConcurrentHashMap<String, String> hashes = new ConcurrentHashMap<>();
+        executor.executeEach(candidates, source -> {
+            try {
+                long start = System.nanoTime();
+                hashes.put(source.getAbsolutePath(), ContentHash.of(source));
+                metrics.record(RunMetrics.Phase.HASH, start);
+                metrics.read(RunMetrics.Phase.HASH, source.length());
+            } catch (Exception e) {
+                // Not hashed, so it is treated as unique
+                e.printStackTrace();
+            }
+        });
+
+        // Copies of the same source are always duplicates, even if it wasn't hashed
+        TreeMap<String, TreeSet<String>> locationsByContent = new TreeMap<>();
+        HashMap<String, TreeSet<String>> sourcesByContent = new HashMap<>();
+        HashMap<String, Long> contentSizes = new HashMap<>();
+        for (ResourceEmitter.ResourceCopy copy : copies) {
+            String path = copy.getSource().getAbsolutePath();
+            String content = hashes.getOrDefault(path, path);
+
+            locationsByContent.computeIfAbsent(content, key -> new TreeSet<>()).add(copy.getResourceLocation());
+            sourcesByContent.computeIfAbsent(content, key -> new TreeSet<>()).add(path);
+            contentSizes.put(content, copy.getSource().length());
+        }
+
+        TreeMap<String, String> sortedGroups = new TreeMap<>();
+        for (Map.Entry<String, TreeSet<String>> content : locationsByContent.entrySet()) {
+            TreeSet<String> locations = content.getValue();
+            if (locations.size() < 2) {
+                continue;
+            }
+
+            String canonical = locations.first();
+            List<String> duplicates = new ArrayList<>(locations.tailSet(canonical, false));
+            for (String duplicate : duplicates) {
+                canonicalLocations.put(duplicate, canonical);
+            }
+            duplicateBytes += contentSizes.get(content.getKey()) * duplicates.size();
+            sortedGroups.put(canonical, canonical + " <- " + String.join(", ", duplicates));
+            sourceGroups.add(new ArrayList<>(sourcesByContent.get(content.getKey())));
+        }
+        groups.addAll(sortedGroups.values());
+    }
+
+    // Points every texture, sprite & emissive texture of the document at the canonical copy of its png
+    public void redirect(StatsDocument document) {
+        for (PokemonStats.Form form : document.getRoot().getForms()) {
+            for (PokemonStats.Gender gender : form.getGenderProperties()) {
+                for (PokemonStats.Palette palette : gender.getPalettes()) {
+                    String texture = canonicalLocations.get(palette.getTexture());
+                    String sprite = canonicalLocations.get(palette.getSprite());
+                    String emissive = canonicalLocations.get(palette.getEmissive());
+
+                    if (texture != null) {
+                        palette.setTexture(texture);
+                        redirected++;
+                    }
+                    if (sprite != null) {
+                        palette.setSprite(sprite);
+                        redirected++;
+                    }
+                    if (emissive != null) {
+                        palette.setEmissive(emissive);
+                        redirected++;
+                    }
+                }
+            }
+        }
+    }
+
+    // Locations that don't have to be written once the palettes point at their canonical location
+    public Map<String, String> getCanonicalLocations() {
+        return canonicalLocations;
+    }
+
+    // '<canonical> <- <duplicate>, ...' for every group of pngs with the same content
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    // The absolute paths of the source pngs of every group
+    public List<List<String>> getSourceGroups() {
+        return sourceGroups;
+    }
+
+    public long getDuplicateBytes() {
+        return duplicateBytes;
+    }
+
+    // Amount of palette entries pointed at a canonical location
+    public int getRedirected() {
+        return redirected;
+    }
+}
@@ -0,0 +1,144 @@
+package dev.notkili;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Collects the pngs referenced by the converted stats files and hands them to the output sink in parallel batches
+class ResourceEmitter {
+    private static final int BATCH_SIZE = 64;
+
+    private List<ResourceCopy> copies = Collections.synchronizedList(new ArrayList<>());
+    private List<ResourceCopy> uniqueCopies;
+
+    private AtomicInteger copied = new AtomicInteger();
+    private AtomicInteger linked = new AtomicInteger();
+    private AtomicInteger unchanged = new AtomicInteger();
+    private List<String> failed = Collections.synchronizedList(new ArrayList<>());
+    private List<String> conflicts = new ArrayList<>();
+
+    public void add(File source, String resourceLocation) {
+        copies.add(new ResourceCopy(source, resourceLocation));
+    }
+
+    public List<String> listCopies() {
+        List<String> lines = new ArrayList<>();
+        for (ResourceCopy copy : getUniqueCopies()) {
+            lines.add(copy.getSource().getPath() + " -> " + copy.getResourceLocation());
+        }
+        return lines;
+    }
+
+    public void emit(ResourceSink sink, PartitionedExecutor executor, RunMetrics metrics) {
+        List<ResourceCopy> pending = getUniqueCopies();
+        List<List<ResourceCopy>> batches = new ArrayList<>();
+
+        for (int i = 0; i < pending.size(); i += BATCH_SIZE) {
+            batches.add(pending.subList(i, Math.min(i + BATCH_SIZE, pending.size())));
+        }
+
+        executor.executeEach(batches, batch -> {
+            for (ResourceCopy copy : batch) {
+                try {
+                    long start = System.nanoTime();
+                    ResourceSink.WriteResult writeResult = sink.writeResource(copy.getSource(), copy.getResourceLocation());
+                    metrics.record(RunMetrics.Phase.COPY, start);
+
+                    switch (writeResult) {
+                        case COPIED:
+                            long bytes = copy.getSource().length();
+                            metrics.read(RunMetrics.Phase.COPY, bytes);
+                            metrics.written(RunMetrics.Phase.COPY, bytes);
+                            copied.incrementAndGet();
+                            break;
+                        case LINKED:
+                            metrics.written(RunMetrics.Phase.COPY, 0);
+                            linked.incrementAndGet();
+                            break;
+                        case UNCHANGED:
+                            unchanged.incrementAndGet();
+                            break;
+                    }
+                } catch (Exception e) {
+                    failed.add(copy.getSource().getPath() + " -> " + copy.getResourceLocation() + " (" + e.getMessage() + ")");
+                }
+            }
+        });
+    }
+
+    // Leaves out locations no palette points at anymore
+    public void skip(Set<String> resourceLocations) {
+        getUniqueCopies().removeIf(copy -> resourceLocations.contains(copy.getResourceLocation()));
+    }
+
+    // The last source registered for a location wins, just like the last palette edit does in the stats files.
+    // Only valid once every resource was added
+    public List<ResourceCopy> getUniqueCopies() {
+        if (uniqueCopies != null) {
+            return uniqueCopies;
+        }
+
+        HashMap<String, ResourceCopy> byLocation = new HashMap<>();
+        List<String> order = new ArrayList<>();
+
+        synchronized (copies) {
+            for (ResourceCopy copy : copies) {
+                ResourceCopy previous = byLocation.put(copy.getResourceLocation(), copy);
+
+                if (previous == null) {
+                    order.add(copy.getResourceLocation());
+                } else if (!previous.getSource().equals(copy.getSource())) {
+                    conflicts.add(copy.getResourceLocation() + ": '" + previous.getSource().getPath() + "' replaced by '" + copy.getSource().getPath() + "'");
+                }
+            }
+        }
+
+        uniqueCopies = new ArrayList<>();
+        for (String location : order) {
+            uniqueCopies.add(byLocation.get(location));
+        }
+        return uniqueCopies;
+    }
+
+    public int getCopied() {
+        return copied.get();
+    }
+
+    public int getLinked() {
+        return linked.get();
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+
+    public List<String> getFailed() {
+        return failed;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    static class ResourceCopy {
+        private File source;
+        private String resourceLocation;
+
+        public ResourceCopy(File source, String resourceLocation) {
+            this.source = source;
+            this.resourceLocation = resourceLocation;
+        }
+
+        public File getSource() {
+            return source;
+        }
+
+        public String getResourceLocation() {
+            return resourceLocation;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.notkili;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+// Destination of the relocated pngs
+interface ResourceSink extends Closeable {
+
+    WriteResult writeResource(File source, String resourceLocation) throws IOException;
+
+    enum WriteResult {
+        COPIED,
+        LINKED,
+        UNCHANGED
+    }
+}
@@ -0,0 +1,260 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts, latencies, bytes & files of every phase of a run. Phases run on several threads at once, so their times can add up to more than the wall time
+public class RunMetrics {
+    private EnumMap<Phase, PhaseMetrics> phases = new EnumMap<>(Phase.class);
+    private long start = System.nanoTime();
+    private long wallNanos;
+    private int threads;
+
+    public RunMetrics(int threads) {
+        this.threads = threads;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseMetrics());
+        }
+    }
+
+    // Adds one operation that started at 'start' (System.nanoTime())
+    public void record(Phase phase, long start) {
+        phases.get(phase).add(System.nanoTime() - start);
+    }
+
+    public void read(Phase phase, long bytes) {
+        phases.get(phase).read(bytes);
+    }
+
+    public void written(Phase phase, long bytes) {
+        phases.get(phase).written(bytes);
+    }
+
+    public void finish() {
+        wallNanos = System.nanoTime() - start;
+    }
+
+    public PhaseMetrics get(Phase phase) {
+        return phases.get(phase);
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "Phases (%.1f ms wall time, threads: %d):", wallNanos / 1e6, threads));
+
+        for (Phase phase : Phase.values()) {
+            PhaseMetrics metrics = phases.get(phase);
+            if (metrics.getCount() == 0) {
+                continue;
+            }
+
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "\t- %s: %d x, %.1f ms total, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+                    phase.getName(), metrics.getCount(), metrics.getTotalNanos() / 1e6, metrics.getPercentile(50) / 1e6, metrics.getPercentile(90) / 1e6,
+                    metrics.getPercentile(99) / 1e6, metrics.getPercentile(100) / 1e6));
+            if (metrics.getFilesRead() > 0) {
+                line.append(", read ").append(metrics.getFilesRead()).append(" files (").append(formatBytes(metrics.getBytesRead())).append(')');
+            }
+            if (metrics.getFilesWritten() > 0) {
+                line.append(", wrote ").append(metrics.getFilesWritten()).append(" files (").append(formatBytes(metrics.getBytesWritten())).append(')');
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    public JsonObject toJson() {
+        JsonObject root = new JsonObject();
+        JsonObject phaseObjects = new JsonObject();
+
+        root.addProperty("wallMillis", wallNanos / 1e6);
+        root.addProperty("threads", threads);
+
+        for (Phase phase : Phase.values()) {
+            PhaseMetrics metrics = phases.get(phase);
+            JsonObject phaseObject = new JsonObject();
+
+            phaseObject.addProperty("count", metrics.getCount());
+            phaseObject.addProperty("totalMillis", metrics.getTotalNanos() / 1e6);
+            phaseObject.addProperty("p50Millis", metrics.getPercentile(50) / 1e6);
+            phaseObject.addProperty("p90Millis", metrics.getPercentile(90) / 1e6);
+            phaseObject.addProperty("p99Millis", metrics.getPercentile(99) / 1e6);
+            phaseObject.addProperty("maxMillis", metrics.getPercentile(100) / 1e6);
+            phaseObject.addProperty("filesRead", metrics.getFilesRead());
+            phaseObject.addProperty("bytesRead", metrics.getBytesRead());
+            phaseObject.addProperty("filesWritten", metrics.getFilesWritten());
+            phaseObject.addProperty("bytesWritten", metrics.getBytesWritten());
+            phaseObjects.add(phase.getName(), phaseObject);
+        }
+
+        root.add("phases", phaseObjects);
+        return root;
+    }
+
+    public void write(File file, Gson gson) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(toJson(), gson.newJsonWriter(writer));
+        }
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    public enum Phase {
+        // Walking the texture & sprite folders
+        SCAN("scan"),
+        // Reading the header of a png, pngs whose header is cached aren't counted
+        VALIDATE("validate"),
+        // Finding the stats file of a texture, sprite or emissive texture
+        LOOKUP("lookup"),
+        // Reading a stats file, or copying it from the base stats of a batch
+        PARSE("parse"),
+        // Adding a palette, sprite or emissive texture to a parsed stats file
+        MUTATE("mutate"),
+        // Writing a stats file
+        WRITE("write"),
+        // Hashing a png that has the same size as another one, to find duplicates
+        HASH("hash"),
+        // Copying, linking or zipping a png
+        COPY("copy");
+
+        private String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    // Lock free, as every worker records into the same phases. Latencies go into a log scaled histogram of fixed size instead of
+    // keeping every sample, so percentiles are the upper bound of their bucket (at most 1/16 above the real value), the max is exact
+    public static class PhaseMetrics {
+        // 16 buckets per power of two, values below 16 ns get a bucket each
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private LongAdder count = new LongAdder();
+        private LongAdder totalNanos = new LongAdder();
+        private LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private LongAdder filesRead = new LongAdder();
+        private LongAdder bytesRead = new LongAdder();
+        private LongAdder filesWritten = new LongAdder();
+        private LongAdder bytesWritten = new LongAdder();
+
+        void add(long nanos) {
+            nanos = Math.max(0, nanos);
+            buckets.incrementAndGet(getBucket(nanos));
+            maxNanos.accumulate(nanos);
+            totalNanos.add(nanos);
+            count.increment();
+        }
+
+        void read(long bytes) {
+            filesRead.increment();
+            bytesRead.add(bytes);
+        }
+
+        void written(long bytes) {
+            filesWritten.increment();
+            bytesWritten.add(bytes);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        // Nearest rank, 100 is the slowest operation
+        public long getPercentile(int percentile) {
+            long max = maxNanos.get();
+            if (percentile >= 100) {
+                return max;
+            }
+
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(getUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        public long getFilesRead() {
+            return filesRead.sum();
+        }
+
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        public long getFilesWritten() {
+            return filesWritten.sum();
+        }
+
+        public long getBytesWritten() {
+            return bytesWritten.sum();
+        }
+
+        private static int getBucket(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long getUpperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.notkili;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Files a run keeps next to its output between runs, i.e. '<output>.manifest.json', '<output>.pngs.json' or '<output>.journal'.
+// The json ones carry a version, files of another version are ignored
+class SidecarFile {
+    // Next to the output rather than inside of it, so it isn't picked up as a stats file or written into the pack
+    public static File getFile(File output, String suffix) {
+        return new File(output.getAbsoluteFile().getParentFile(), output.getName() + suffix);
+    }
+
+    // Null if the file doesn't exist, was written by another version or can't be read
+    public static <T> T load(File file, int version, Function<JsonObject, T> reader) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(in).getAsJsonObject();
+
+            if (root.get("version").getAsInt() != version) {
+                return null;
+            }
+            return reader.apply(root);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Written to a temporary file first, so an interrupted run leaves the previous file intact
+    public static void save(File file, int version, Consumer<JsonObject> writer) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("version", version);
+        writer.accept(root);
+
+        Path temp = DirectoryOutputSink.getTemp(file.toPath());
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            JsonFormat.PRETTY.toJson(root, out);
+        }
+        DirectoryOutputSink.replace(temp, file.toPath());
+    }
+
+    public static List<String> toList(JsonArray array) {
+        List<String> list = new ArrayList<>();
+        for (JsonElement element : array) {
+            list.add(element.getAsString());
+        }
+        return list;
+    }
+
+    public static JsonArray toArray(List<String> list) {
+        JsonArray array = new JsonArray();
+        for (String value : list) {
+            array.add(value);
+        }
+        return array;
+    }
+}
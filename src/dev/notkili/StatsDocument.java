@@ -0,0 +1,43 @@
+package dev.notkili;
+
+import java.io.File;
+
+class StatsDocument {
+    private File source;
+    private PokemonStats root;
+    private boolean dirty;
+    private PaletteIndex palettes;
+
+    public StatsDocument(File source, PokemonStats root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    public String getFileName() {
+        return source.getName();
+    }
+
+    public PokemonStats getRoot() {
+        return root;
+    }
+
+    // Built on first use, the document must only be changed through it afterwards
+    public PaletteIndex getPalettes() {
+        if (palettes == null) {
+            palettes = new PaletteIndex(root);
+        }
+        return palettes;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+}
@@ -0,0 +1,267 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+// Keeps every stats file that is touched during a run parsed in memory, so each file is read once
+// and written once at the end instead of after every single palette edit.
+// With a budget, the least recently used documents are evicted once it is exceeded, dirty ones are written on eviction.
+// Safe to share between threads as long as every document is only modified by one thread at a time
+class StatsDocumentStore {
+    // Rough size of a parsed document compared to its file, the untyped members are gson trees which take about that much more memory than their text
+    private static final int TREE_SIZE_FACTOR = 8;
+
+    private BaseStats baseStats;
+    private RunMetrics metrics = new RunMetrics(1);
+    private ConcurrentHashMap<String, StatsDocument> documents = new ConcurrentHashMap<>();
+
+    // Budget of parsed documents, 0 for no limit. The eviction state is guarded by 'documentSizes'
+    private int maxDocuments;
+    private long maxBytes;
+    private LinkedHashMap<String, Long> documentSizes = new LinkedHashMap<>(16, 0.75f, true);
+    private HashMap<String, Integer> pinned = new HashMap<>();
+    private long bytes;
+    private TreeSet<String> discardedFileNames = new TreeSet<>();
+
+    private OutputSink sink;
+    private Gson gson;
+    private Predicate<String> alreadyWritten = fileName -> false;
+    private List<String> failed = Collections.synchronizedList(new ArrayList<>());
+
+    private AtomicInteger requests = new AtomicInteger();
+    private AtomicInteger parses = new AtomicInteger();
+    private AtomicInteger modifications = new AtomicInteger();
+    private AtomicInteger writes = new AtomicInteger();
+    private AtomicInteger evictions = new AtomicInteger();
+    private AtomicInteger resumed = new AtomicInteger();
+
+    public StatsDocumentStore() {
+    }
+
+    // Documents are copied from the shared base stats instead of being parsed again
+    public StatsDocumentStore(BaseStats baseStats) {
+        this.baseStats = baseStats;
+    }
+
+    public void setMetrics(RunMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setBudget(int maxDocuments, long maxBytes) {
+        this.maxDocuments = maxDocuments;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean hasBudget() {
+        return maxDocuments > 0 || maxBytes > 0;
+    }
+
+    // Where evicted documents are written to, without one they are only remembered as dirty (i.e. for a dry run)
+    public void setOutput(OutputSink sink, Gson gson) {
+        this.sink = sink;
+        this.gson = gson;
+    }
+
+    // Documents that already are in the output, i.e. written by an interrupted run that is being resumed, aren't written again
+    public void setAlreadyWritten(Predicate<String> alreadyWritten) {
+        this.alreadyWritten = alreadyWritten;
+    }
+
+    public StatsDocument get(File statsFile) throws Exception {
+        requests.incrementAndGet();
+        return load(statsFile);
+    }
+
+    // Parses the document if that didn't happen yet, without counting it as a request of a converter
+    public StatsDocument load(File statsFile) throws Exception {
+        StatsDocument document = documents.get(statsFile.getName());
+
+        if (document == null) {
+            long start = System.nanoTime();
+
+            if (baseStats != null) {
+                // Copy on write, the shared base document stays untouched for the other packs
+                document = new StatsDocument(statsFile, baseStats.copy(statsFile));
+            } else {
+                try (BufferedReader reader = Files.newBufferedReader(statsFile.toPath(), StandardCharsets.UTF_8)) {
+                    document = new StatsDocument(statsFile, PokemonStats.read(reader));
+                }
+                metrics.read(RunMetrics.Phase.PARSE, statsFile.length());
+            }
+
+            metrics.record(RunMetrics.Phase.PARSE, start);
+            parses.incrementAndGet();
+            documents.put(statsFile.getName(), document);
+        }
+
+        if (hasBudget()) {
+            used(statsFile);
+        }
+        return document;
+    }
+
+    // Loads the document & keeps it from being evicted until it is released. Every stats file is merged in one go while it is
+    // acquired (see TextureConverter.mergeRecords), so an evicted document is never needed again
+    public StatsDocument acquire(File statsFile) throws Exception {
+        synchronized (documentSizes) {
+            pinned.merge(statsFile.getName(), 1, Integer::sum);
+        }
+        return load(statsFile);
+    }
+
+    public void release(File statsFile) {
+        synchronized (documentSizes) {
+            pinned.computeIfPresent(statsFile.getName(), (name, count) -> count > 1 ? count - 1 : null);
+        }
+        if (hasBudget()) {
+            evict();
+        }
+    }
+
+    private void used(File statsFile) {
+        synchronized (documentSizes) {
+            Long size = documentSizes.get(statsFile.getName());
+            if (size == null) {
+                size = statsFile.length() * TREE_SIZE_FACTOR;
+                documentSizes.put(statsFile.getName(), size);
+                bytes += size;
+            }
+        }
+        evict();
+    }
+
+    // Drops the least recently used documents that aren't acquired until the budget is met again, dirty ones are written outside the lock
+    private void evict() {
+        List<StatsDocument> evicted = new ArrayList<>();
+
+        synchronized (documentSizes) {
+            Iterator<Map.Entry<String, Long>> iterator = documentSizes.entrySet().iterator();
+
+            while ((maxDocuments > 0 && documentSizes.size() > maxDocuments || maxBytes > 0 && bytes > maxBytes) && iterator.hasNext()) {
+                Map.Entry<String, Long> entry = iterator.next();
+                if (pinned.containsKey(entry.getKey())) {
+                    continue;
+                }
+
+                iterator.remove();
+                bytes -= entry.getValue();
+                evicted.add(documents.remove(entry.getKey()));
+            }
+        }
+
+        for (StatsDocument document : evicted) {
+            evictions.incrementAndGet();
+            if (document == null || !document.isDirty()) {
+                continue;
+            }
+
+            if (sink == null) {
+                synchronized (documentSizes) {
+                    discardedFileNames.add(document.getFileName());
+                }
+            } else {
+                write(document, sink, gson);
+            }
+        }
+    }
+
+    public void markDirty(StatsDocument document) {
+        modifications.incrementAndGet();
+        document.setDirty(true);
+    }
+
+    public StatsDocument getDocument(String fileName) {
+        return documents.get(fileName);
+    }
+
+    // Includes documents that were evicted without being written
+    public List<String> getDirtyFileNames() {
+        List<String> fileNames = new ArrayList<>();
+        for (StatsDocument document : documents.values()) {
+            if (document.isDirty()) {
+                fileNames.add(document.getFileName());
+            }
+        }
+        synchronized (documentSizes) {
+            fileNames.addAll(discardedFileNames);
+        }
+        fileNames.sort(String::compareTo);
+        return fileNames;
+    }
+
+    // Sorted, so zip archives come out the same on every run when written with a single thread & without a budget.
+    // Returns every document that couldn't be written, including evicted ones
+    public List<String> flush(OutputSink sink, Gson gson, PartitionedExecutor executor) {
+        List<String> dirty = new ArrayList<>();
+        for (String fileName : getDirtyFileNames()) {
+            if (documents.containsKey(fileName)) {
+                dirty.add(fileName);
+            }
+        }
+
+        executor.executeEach(dirty, fileName -> write(documents.get(fileName), sink, gson));
+
+        List<String> failedFiles = new ArrayList<>(failed);
+        failedFiles.sort(String::compareTo);
+        return failedFiles;
+    }
+
+    private void write(StatsDocument document, OutputSink sink, Gson gson) {
+        if (alreadyWritten.test(document.getFileName())) {
+            document.setDirty(false);
+            resumed.incrementAndGet();
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            metrics.written(RunMetrics.Phase.WRITE, sink.writeStats(document.getFileName(), document.getRoot(), gson));
+            metrics.record(RunMetrics.Phase.WRITE, start);
+            document.setDirty(false);
+            writes.incrementAndGet();
+        } catch (Exception e) {
+            e.printStackTrace();
+            failed.add(document.getFileName());
+        }
+    }
+
+    public int getParses() {
+        return parses.get();
+    }
+
+    public int getWrites() {
+        return writes.get();
+    }
+
+    public int getParsesSaved() {
+        return requests.get() - parses.get();
+    }
+
+    public int getWritesSaved() {
+        return modifications.get() - writes.get();
+    }
+
+    public int getEvictions() {
+        return evictions.get();
+    }
+
+    // Documents that weren't written because they already were in the output
+    public int getResumed() {
+        return resumed.get();
+    }
+}
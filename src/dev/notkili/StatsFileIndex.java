@@ -0,0 +1,149 @@
+package dev.notkili;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+// Maps pokemon names, name_form combinations and dex numbers to their stats file, built once from the stats folder
+class StatsFileIndex {
+    private HashMap<String, File> byName = new HashMap<>();
+    private HashMap<Integer, File> byDex = new HashMap<>();
+    private List<File> files = new ArrayList<>();
+    private List<String> ambiguities = new ArrayList<>();
+
+    public static StatsFileIndex build(File statsFolder) {
+        StatsFileIndex index = new StatsFileIndex();
+        index.collect(statsFolder);
+        index.files.sort((a, b) -> a.getPath().compareTo(b.getPath()));
+
+        // Plain name keys first, so that i.e. 'pikachu' points to 'pikachu.json' and not to 'pikachu_alolan.json'
+        for (File file : index.files) {
+            index.indexFile(file);
+        }
+        // A name without a stats file of its own points to the first of its forms
+        HashMap<String, File> formNames = new HashMap<>();
+        for (File file : index.files) {
+            String[] nameParts = getNameParts(file);
+            if (nameParts.length < 2 || index.byName.containsKey(nameParts[0])) {
+                continue;
+            }
+
+            File previous = formNames.putIfAbsent(nameParts[0], file);
+            if (previous != null) {
+                index.ambiguities.add("Name '" + nameParts[0] + "' matches the forms '" + previous.getName() + "' and '" + file.getName() + "', using '" + previous.getName() + "'");
+            }
+        }
+        formNames.forEach(index.byName::putIfAbsent);
+
+        return index;
+    }
+
+    private void collect(File folder) {
+        File[] children = folder.listFiles();
+
+        if (children == null) {
+            return;
+        }
+
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collect(child);
+            } else if (child.getName().endsWith(".json")) {
+                files.add(child);
+            }
+        }
+    }
+
+    private void indexFile(File file) {
+        String stem = getStem(file);
+        putName(stem, file);
+
+        int dex = getDex(file);
+        if (dex >= 0) {
+            File previous = byDex.putIfAbsent(dex, file);
+            if (previous != null) {
+                ambiguities.add("Dex '" + dex + "' matches '" + previous.getPath() + "' and '" + file.getPath() + "', using '" + previous.getName() + "'");
+            }
+            putName(stem.substring(stem.indexOf('_') + 1), file);
+        }
+    }
+
+    private void putName(String key, File file) {
+        File previous = byName.putIfAbsent(key, file);
+        if (previous != null && !previous.equals(file)) {
+            ambiguities.add("Name '" + key + "' matches '" + previous.getPath() + "' and '" + file.getPath() + "', using '" + previous.getName() + "'");
+        }
+    }
+
+    public File findByName(String pokemonName) {
+        return byName.get(pokemonName.toLowerCase(Locale.ROOT));
+    }
+
+    // Sprites & emissive textures are named after the dex number, but fall back to the name if they aren't
+    public File findByDexOrName(String dexOrName) {
+        if (!dexOrName.isEmpty() && dexOrName.chars().allMatch(Character::isDigit)) {
+            return byDex.get(Integer.parseInt(dexOrName));
+        }
+        return findByName(dexOrName);
+    }
+
+    // Changes whenever a stats file is added, removed or modified
+    public String describe() {
+        StringBuilder description = new StringBuilder();
+        for (File file : files) {
+            description.append(file.getPath()).append('|').append(file.length()).append('|').append(file.lastModified()).append('\n');
+        }
+        return description.toString();
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    // Sorted by path
+    public List<File> getFiles() {
+        return files;
+    }
+
+    public List<String> getAmbiguities() {
+        return ambiguities;
+    }
+
+    private static String getStem(File file) {
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        return name.substring(0, name.length() - ".json".length());
+    }
+
+    // The name a texture needs to be matched to the stats file, its file name without the dex number
+    static String getPokemonName(File file) {
+        String stem = getStem(file);
+        return getDex(file) >= 0 ? stem.substring(stem.indexOf('_') + 1) : stem;
+    }
+
+    // -1 if the file name doesn't start with one
+    static int getDex(File file) {
+        String stem = getStem(file);
+        int separator = stem.indexOf('_');
+
+        if (separator <= 0) {
+            return -1;
+        }
+
+        String dex = stem.substring(0, separator);
+        return dex.chars().allMatch(Character::isDigit) ? Integer.parseInt(dex) : -1;
+    }
+
+    // The name followed by the form parts, without a leading dex number
+    private static String[] getNameParts(File file) {
+        String stem = getStem(file);
+        String[] parts = stem.split("_");
+
+        if (getDex(file) >= 0 && parts.length > 1) {
+            return Arrays.copyOfRange(parts, 1, parts.length);
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,126 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+// A json object of a stats file with its members in their original order. The members the converter works with are typed fields
+// of the subclasses, every other member is kept as parsed & written back untouched, so a file that isn't changed is written as it was read
+abstract class StatsNode {
+    private List<String> keys = new ArrayList<>();
+    // Null while the object has no other members, the elements are never modified & shared between copies
+    private HashMap<String, JsonElement> unknown;
+
+    // Reads the value of a typed member, returns false if the key isn't one or the value doesn't have the expected type
+    protected abstract boolean readMember(String key, JsonReader reader) throws IOException;
+
+    protected abstract void writeMember(String key, JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException;
+
+    protected void read(JsonReader reader) throws IOException {
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            String key = reader.nextName().intern();
+
+            if (readMember(key, reader)) {
+                set(key);
+            } else {
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+                if (unknown == null) {
+                    unknown = new HashMap<>();
+                }
+                unknown.put(key, JsonParser.parseReader(reader));
+            }
+        }
+
+        reader.endObject();
+    }
+
+    protected void write(JsonWriter writer, TypeAdapter<JsonElement> elements) throws IOException {
+        writer.beginObject();
+
+        for (String key : keys) {
+            JsonElement element = unknown == null ? null : unknown.get(key);
+
+            if (element != null) {
+                writer.name(key);
+                elements.write(writer, element);
+            } else {
+                writeMember(key, writer, elements);
+            }
+        }
+
+        writer.endObject();
+    }
+
+    // Called whenever a typed member is set, new members are appended like JsonObject.add does
+    protected void set(String key) {
+        if (!keys.contains(key)) {
+            keys.add(key);
+        }
+        if (unknown != null) {
+            unknown.remove(key);
+        }
+    }
+
+    protected JsonElement getUnknown(String key) {
+        return unknown == null ? null : unknown.get(key);
+    }
+
+    protected void copyMembers(StatsNode source) {
+        keys = new ArrayList<>(source.keys);
+        unknown = source.unknown == null ? null : new HashMap<>(source.unknown);
+    }
+
+    // Null if the value isn't a string, the member is kept untyped then
+    protected static String readString(JsonReader reader) throws IOException {
+        return reader.peek() == JsonToken.STRING ? reader.nextString() : null;
+    }
+
+    // Form, gender & palette names repeat in every stats file, so only one instance of each is kept
+    protected static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    protected static boolean isArray(JsonReader reader) throws IOException {
+        return reader.peek() == JsonToken.BEGIN_ARRAY;
+    }
+
+    // Typed lists only hold objects, anything else in them is a broken stats file
+    protected static <T extends StatsNode> List<T> readList(JsonReader reader, NodeFactory<T> factory) throws IOException {
+        List<T> list = new ArrayList<>();
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            T node = factory.create();
+            node.read(reader);
+            list.add(node);
+        }
+
+        reader.endArray();
+        return list;
+    }
+
+    protected static void writeList(JsonWriter writer, String key, List<? extends StatsNode> list, TypeAdapter<JsonElement> elements) throws IOException {
+        writer.name(key);
+        writer.beginArray();
+        for (StatsNode node : list) {
+            node.write(writer, elements);
+        }
+        writer.endArray();
+    }
+
+    protected interface NodeFactory<T extends StatsNode> {
+        T create();
+    }
+}
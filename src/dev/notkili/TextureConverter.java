@@ -0,0 +1,961 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Converts one texture pack, every instance keeps its own state so several packs can be converted in the same jvm
+public class TextureConverter {
+    private ConverterConfig config;
+    private BaseStats baseStats;
+
+    private ConversionLog log;
+    private ConversionResult result;
+    private StatsDocumentStore statsDocuments;
+    private StatsFileIndex statsIndex;
+    private PokemonNameParser nameParser;
+    private PartitionedExecutor executor;
+    private ResourceEmitter resources;
+    private RunMetrics metrics;
+    private List<List<String>> sharedSources = new ArrayList<>();
+
+    public TextureConverter(ConverterConfig config) {
+        this.config = config;
+    }
+
+    // Used by the batch mode, the stats folder is only parsed once for all packs
+    TextureConverter(ConverterConfig config, BaseStats baseStats) {
+        this.config = config;
+        this.baseStats = baseStats;
+    }
+
+    public ConversionResult convert() {
+        result = new ConversionResult();
+        statsDocuments = baseStats != null ? new StatsDocumentStore(baseStats) : new StatsDocumentStore();
+        executor = new PartitionedExecutor(config.getThreads());
+        metrics = new RunMetrics(executor.getThreads());
+        statsDocuments.setMetrics(metrics);
+        statsDocuments.setBudget(config.getMaxDocuments(), config.getMaxDocumentBytes());
+        resources = config.isCopyResources() || config.getZipFile() != null ? new ResourceEmitter() : null;
+
+        try (ConversionLog log = new ConversionLog(config.getLogFile(), config.getResultFile(), config.getVerbosity(), config.isJsonLog())) {
+            this.log = log;
+            convertAll();
+
+            File output = config.getZipFile() != null ? config.getZipFile() : config.getOutputFolder();
+            if (result.isCompleted()) {
+                log.message("Finished conversion! Your updated stats-files are now in '" + output.getPath() + "'");
+            } else {
+                log.message("The conversion failed, see the errors above", true);
+            }
+            metrics.finish();
+            result.setMetrics(metrics);
+            writeResults();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Could not instantiate log-writer, can't continue");
+            result.setCompleted(false);
+        }
+
+        return result;
+    }
+
+    private void convertAll() {
+        File statsFolder = config.getStatsFolder();
+        File pokemonTextureFolder = config.getTextureFolder();
+        File spriteTextureFolder = config.getSpriteFolder();
+        File outputFolder = config.getOutputFolder();
+        File zipFile = config.getZipFile();
+
+        if (isDir(statsFolder) && isDir(pokemonTextureFolder) && isDir(spriteTextureFolder)) {
+            if (!isDir(outputFolder)) {
+                if (!outputFolder.mkdirs()) {
+                    log.message("An error occurred trying to create the output folder. Make sure it exists!", true);
+                    result.setCompleted(false);
+                    return;
+                }
+            }
+
+            try {
+                nameParser = PokemonNameParser.load(config.getAliasFile());
+            } catch (Exception e) {
+                e.printStackTrace();
+                log.message("Couldnt load the alias table" + (config.getAliasFile() != null ? " '" + config.getAliasFile().getPath() + "'" : ""), true);
+                result.setCompleted(false);
+                return;
+            }
+
+            statsIndex = baseStats != null ? baseStats.getIndex() : StatsFileIndex.build(statsFolder);
+            log.message("Indexed " + statsIndex.size() + " stats files");
+            result.setAmbiguousStatsFiles(statsIndex.getAmbiguities());
+
+            List<ConversionTask> textures = new ArrayList<>();
+            List<ConversionTask> sprites = new ArrayList<>();
+            List<ConversionTask> emissives = new ArrayList<>();
+
+            PackScanner scanner = new PackScanner(nameParser);
+            try {
+                long start = System.nanoTime();
+                scanner.scan(pokemonTextureFolder, spriteTextureFolder);
+                metrics.record(RunMetrics.Phase.SCAN, start);
+            } catch (Exception e) {
+                e.printStackTrace();
+                log.message("An error occurred trying to scan the texture & sprite folders", true);
+                result.setCompleted(false);
+                return;
+            }
+
+            for (String unsupported : scanner.getUnsupportedFiles()) {
+                log.message("Found file with unsupported file extension: '" + unsupported + "'", true);
+            }
+            for (String unreadable : scanner.getUnreadable()) {
+                log.message("Couldnt read '" + unreadable + "'", true);
+            }
+            result.setScan(scanner.getFileCount(), scanner.getDirectories(), scanner.getScanMillis());
+            log.message("Scanned " + scanner.getFileCount() + " files in " + scanner.getDirectories() + " folders (" + scanner.getScanMillis() + " ms)");
+
+            List<PackScanner.ScannedFile> scannedTextures = scanner.getTextures();
+            List<PackScanner.ScannedFile> scannedSprites = scanner.getSprites();
+            List<PackScanner.ScannedFile> scannedEmissives = scanner.getEmissives();
+
+            if (config.isValidatePngs()) {
+                File cacheFile = PngCache.getFile(outputFolder);
+                PngValidator validator = new PngValidator(PngCache.load(cacheFile));
+                scannedTextures = validator.validate(scannedTextures, PngValidator.Kind.TEXTURE, executor, metrics);
+                scannedSprites = validator.validate(scannedSprites, PngValidator.Kind.SPRITE, executor, metrics);
+                scannedEmissives = validator.validate(scannedEmissives, PngValidator.Kind.EMISSIVE, executor, metrics);
+
+                for (String invalid : validator.getInvalid()) {
+                    log.message("Skipping broken png " + invalid, true);
+                }
+                for (String warning : validator.getWarnings()) {
+                    log.message("Unexpected png size " + warning);
+                }
+                result.setInvalidPngs(validator.getInvalid());
+                result.setPngWarnings(validator.getWarnings());
+                log.message("Validated " + validator.getValidated() + " pngs (" + validator.getCached() + " cached), " + validator.getInvalid().size()
+                        + " broken & " + validator.getWarnings().size() + " of an unexpected size");
+
+                try {
+                    validator.getCache().save(cacheFile);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    log.message("Couldnt write the png cache '" + cacheFile.getPath() + "'", true);
+                }
+            }
+
+            // Textures are matched by name, sprites & emissive textures are named after the dex number
+            for (PackScanner.ScannedFile file : scannedTextures) {
+                long start = System.nanoTime();
+                textures.add(new ConversionTask(file, statsIndex.findByName(file.getPokemon().getName())));
+                metrics.record(RunMetrics.Phase.LOOKUP, start);
+            }
+            for (PackScanner.ScannedFile file : scannedSprites) {
+                long start = System.nanoTime();
+                sprites.add(new ConversionTask(file, statsIndex.findByDexOrName(file.getPokemon().getName())));
+                metrics.record(RunMetrics.Phase.LOOKUP, start);
+            }
+            for (PackScanner.ScannedFile file : scannedEmissives) {
+                long start = System.nanoTime();
+                emissives.add(new ConversionTask(file, statsIndex.findByDexOrName(file.getPokemon().getName())));
+                metrics.record(RunMetrics.Phase.LOOKUP, start);
+            }
+            result.setAmbiguousFileNames(nameParser.getAmbiguities());
+
+            ConversionManifest manifest = null;
+            if (config.isIncremental()) {
+                if (zipFile != null) {
+                    log.message("Incremental conversion isn't possible when writing a zip, converting everything", true);
+                } else {
+                    String fingerprint = ContentHash.of(statsIndex.describe() + "\n" + pokemonTextureFolder.getAbsolutePath() + "\n"
+                            + spriteTextureFolder.getAbsolutePath() + "\n" + (resources != null) + "\n" + config.isHardLinks() + "\n" + config.isCompactJson() + "\n" + config.isDeduplicate()
+                            + "\n" + nameParser.getFingerprint());
+                    manifest = skipUnchanged(fingerprint, ConversionManifest.getFile(outputFolder), outputFolder, textures, sprites, emissives);
+                }
+            }
+
+            if (config.isDryRun()) {
+                convertAllPalettes(textures, sprites, emissives);
+                if (resources != null) {
+                    deduplicate();
+                }
+
+                for (String fileName : statsDocuments.getDirtyFileNames()) {
+                    log.message("Would write stats file '" + new File(outputFolder, fileName).getPath() + "'");
+                }
+                if (resources != null) {
+                    for (String copy : resources.listCopies()) {
+                        log.message("Would copy " + copy);
+                    }
+                }
+                return;
+            }
+
+            ConversionJournal journal = null;
+            if (zipFile != null) {
+                if (config.isResume()) {
+                    log.message("Resuming isn't possible when writing a zip, writing everything", true);
+                }
+            } else {
+                journal = openJournal(ConversionJournal.getFile(outputFolder), ContentHash.of(statsIndex.describe() + "\n" + scanner.describe() + "\n"
+                        + (resources != null) + "\n" + config.isHardLinks() + "\n" + config.isCompactJson() + "\n" + config.isDeduplicate() + "\n" + nameParser.getFingerprint()));
+            }
+
+            if (journal != null && journal.isResumed()) {
+                ConversionJournal resumedJournal = journal;
+                statsDocuments.setAlreadyWritten(fileName -> resumedJournal.isCompleted(JournaledOutputSink.statsItem(fileName)) && new File(outputFolder, fileName).isFile());
+            }
+
+            boolean written = false;
+            try (OutputSink sink = openSink(zipFile, outputFolder, journal)) {
+                // The zip entries are written one at a time anyway, so they are kept in order
+                Gson statsGson = config.isCompactJson() ? JsonFormat.COMPACT : JsonFormat.PRETTY;
+                PartitionedExecutor writeExecutor = zipFile != null ? new PartitionedExecutor(1) : executor;
+
+                // With a budget, documents are already written while converting, as soon as they are evicted
+                statsDocuments.setOutput(sink, statsGson);
+                convertAllPalettes(textures, sprites, emissives);
+                if (resources != null) {
+                    deduplicate();
+                }
+
+                List<String> failedFiles = statsDocuments.flush(sink, statsGson, writeExecutor);
+                for (String failed : failedFiles) {
+                    result.addErroredFile(failed);
+                    log.message("Couldnt write " + failed + " to file", true);
+                }
+
+                if (resources != null) {
+                    resources.emit(sink, executor, metrics);
+                }
+
+                if (journal != null && journal.isResumed()) {
+                    log.message("Resumed the interrupted run, skipped " + statsDocuments.getResumed() + " stats files & " + ((JournaledOutputSink) sink).getResumedResources()
+                            + " pngs it already wrote");
+                }
+                if (statsDocuments.hasBudget()) {
+                    log.message("Evicted " + statsDocuments.getEvictions() + " parsed stats files to stay within the memory budget");
+                }
+                written = failedFiles.isEmpty() && (resources == null || resources.getFailed().isEmpty());
+            } catch (Exception e) {
+                e.printStackTrace();
+                log.message("An error occurred trying to write the output" + (zipFile != null ? " zip '" + zipFile.getPath() + "'" : ""), true);
+            }
+
+            // Something that should be in the output isn't, so callers can't rely on it
+            if (!written) {
+                result.setCompleted(false);
+            }
+
+            if (journal != null) {
+                finishJournal(journal, written);
+            }
+
+            if (manifest != null) {
+                saveManifest(manifest, ConversionManifest.getFile(outputFolder), textures, sprites, emissives);
+            }
+        } else {
+            log.message("The stats, texture & sprite folders have to exist!", true);
+            result.setCompleted(false);
+        }
+    }
+
+    private void deduplicate() {
+        ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+        deduplicator.find(resources.getUniqueCopies(), executor, metrics);
+        result.setDuplicateResources(deduplicator.getGroups(), deduplicator.getDuplicateBytes());
+
+        int duplicates = deduplicator.getCanonicalLocations().size();
+        if (duplicates == 0) {
+            return;
+        }
+
+        if (!config.isDeduplicate()) {
+            log.message("Found " + duplicates + " pngs with the same content as another one (" + deduplicator.getDuplicateBytes() / 1024
+                    + " KB), use '--dedup' to only write them once");
+            return;
+        }
+        if (statsDocuments.hasBudget()) {
+            // Evicted stats files are already written with their own locations
+            log.message("Can't deduplicate " + duplicates + " pngs with a memory budget, every stats file has to be in memory for that", true);
+            return;
+        }
+
+        for (String fileName : statsDocuments.getDirtyFileNames()) {
+            deduplicator.redirect(statsDocuments.getDocument(fileName));
+        }
+        resources.skip(deduplicator.getCanonicalLocations().keySet());
+        sharedSources = deduplicator.getSourceGroups();
+        log.message("Pointed " + deduplicator.getRedirected() + " palette entries at " + deduplicator.getGroups().size() + " shared pngs, skipping "
+                + duplicates + " duplicates (" + deduplicator.getDuplicateBytes() / 1024 + " KB)");
+    }
+
+    private ConversionJournal openJournal(File journalFile, String fingerprint) {
+        try {
+            ConversionJournal journal = ConversionJournal.open(journalFile, fingerprint, config.isResume());
+            if (config.isResume() && !journal.isResumed()) {
+                log.message("No matching journal found at '" + journalFile.getPath() + "', writing everything");
+            }
+            return journal;
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt open the journal '" + journalFile.getPath() + "', an interrupted run can't be resumed", true);
+            return null;
+        }
+    }
+
+    private OutputSink openSink(File zipFile, File outputFolder, ConversionJournal journal) throws IOException {
+        if (zipFile != null) {
+            return new ZipOutputSink(zipFile);
+        }
+
+        OutputSink sink = new DirectoryOutputSink(outputFolder, config.isHardLinks());
+        return journal != null ? new JournaledOutputSink(sink, journal, outputFolder) : sink;
+    }
+
+    // Kept if something couldn't be written, so only that is written again by '--resume'
+    private void finishJournal(ConversionJournal journal, boolean written) {
+        try {
+            journal.finish(written);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt close the journal '" + journal.getFile().getPath() + "'", true);
+            return;
+        }
+
+        if (!written) {
+            log.message("Run again with '--resume' to only write what is missing");
+        }
+    }
+
+    private void writeResults() {
+        ConversionReport.writeErrors(log, result, "Errored Files (Stat's files unable to fetch)");
+
+        if (config.isValidatePngs()) {
+            ConversionReport.writeList(log, "Broken pngs", result.getInvalidPngs());
+            ConversionReport.writeList(log, "Pngs of an unexpected size", result.getPngWarnings());
+        }
+
+        if (statsIndex != null) {
+            ConversionReport.writeList(log, "Ambiguous stats files", result.getAmbiguousStatsFiles());
+            ConversionReport.writeList(log, "Ambiguous file names", result.getAmbiguousFileNames());
+        }
+
+        if (resources != null && !config.isDryRun()) {
+            ConversionReport.writeResources(log, result, resources);
+
+            log.result("\n" +
+                    "\nDuplicate pngs: " + result.getDuplicateResources().size() + " groups (" + result.getDuplicateBytes() / 1024 + " KB"
+                    + (config.isDeduplicate() ? " saved)" : ", use '--dedup' to only write them once)"));
+            for (String duplicate : result.getDuplicateResources()) {
+                log.result("\t- " + duplicate);
+            }
+        }
+
+        result.setStatsFiles(statsDocuments.getParses(), statsDocuments.getWrites(), statsDocuments.getParsesSaved(), statsDocuments.getWritesSaved());
+        log.result("\n" +
+                "\nStats files: " + result.getStatsFilesParsed() + " parsed, " + result.getStatsFilesWritten() + " written" +
+                "\n(Saved " + result.getParsesSaved() + " parses & " + result.getWritesSaved() + " writes)");
+
+        if (result.getScannedFolders() > 0) {
+            log.result("\n" +
+                    "\nScanned " + result.getScannedFiles() + " files in " + result.getScannedFolders() + " folders (" + result.getScanMillis() + " ms)");
+        }
+
+        ConversionReport.writeMetrics(log, metrics, config.getMetricsFile());
+    }
+
+    private static boolean isDir(File file) {
+        return file.exists() && file.isDirectory();
+    }
+
+    // Removes every task whose stats file isn't affected by a source that changed, was added or was removed since the last run.
+    // Stats files are always rebuilt from the base stats, so every task of an affected stats file has to run again
+    @SafeVarargs
+    private ConversionManifest skipUnchanged(String fingerprint, File manifestFile, File outputFolder, List<ConversionTask>... passes) {
+        ConversionManifest previous = ConversionManifest.load(manifestFile);
+        ConversionManifest manifest = new ConversionManifest(fingerprint);
+
+        List<ConversionTask> allTasks = new ArrayList<>();
+        for (List<ConversionTask> pass : passes) {
+            allTasks.addAll(pass);
+        }
+
+        executor.executeEach(allTasks, task -> {
+            try {
+                task.setManifestEntry(ConversionManifest.describe(task.getSourceFile(), previous == null ? null : previous.get(task.getSourceKey())));
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+
+        if (previous == null || !previous.getFingerprint().equals(fingerprint)) {
+            log.message("No matching manifest found at '" + manifestFile.getPath() + "', converting everything");
+            return manifest;
+        }
+
+        HashSet<String> affectedStatsFiles = new HashSet<>();
+        HashSet<String> currentSources = new HashSet<>();
+        int changed = 0;
+        int removed = 0;
+
+        for (ConversionTask task : allTasks) {
+            ConversionManifest.Entry before = previous.get(task.getSourceKey());
+            ConversionManifest.Entry now = task.getManifestEntry();
+            currentSources.add(task.getSourceKey());
+
+            if (before == null || now == null || !before.getHash().equals(now.getHash())) {
+                changed++;
+                if (task.getStatsFile() != null) {
+                    affectedStatsFiles.add(task.getStatsFile().getName());
+                }
+                if (before != null) {
+                    affectedStatsFiles.addAll(before.getStatsFiles());
+                }
+            }
+        }
+
+        for (Map.Entry<String, ConversionManifest.Entry> source : previous.getEntries().entrySet()) {
+            if (!currentSources.contains(source.getKey())) {
+                removed++;
+                affectedStatsFiles.addAll(source.getValue().getStatsFiles());
+            }
+            for (String statsFile : source.getValue().getStatsFiles()) {
+                if (!new File(outputFolder, statsFile).isFile()) {
+                    affectedStatsFiles.add(statsFile);
+                }
+            }
+        }
+
+        int skipped = 0;
+        for (List<ConversionTask> pass : passes) {
+            Iterator<ConversionTask> iterator = pass.iterator();
+
+            while (iterator.hasNext()) {
+                ConversionTask task = iterator.next();
+                ConversionManifest.Entry before = previous.get(task.getSourceKey());
+                ConversionManifest.Entry now = task.getManifestEntry();
+
+                if (task.getStatsFile() != null && !affectedStatsFiles.contains(task.getStatsFile().getName())) {
+                    manifest.put(task.getSourceKey(), new ConversionManifest.Entry(now.getSize(), now.getModified(), now.getHash(), before.getStatsFiles(), before.getPalettes()));
+                    iterator.remove();
+                    skipped++;
+                } else if (before != null && now != null) {
+                    // Stats files that aren't rebuilt still point at the png they were pointed at by '--dedup'
+                    for (String statsFile : before.getStatsFiles()) {
+                        if (!affectedStatsFiles.contains(statsFile)) {
+                            now.getStatsFiles().add(statsFile);
+                        }
+                    }
+                }
+            }
+        }
+
+        log.message("Incremental conversion: " + changed + " changed or added & " + removed + " removed sources affect " + affectedStatsFiles.size()
+                + " stats files, skipping " + skipped + " unchanged sources");
+        return manifest;
+    }
+
+    @SafeVarargs
+    private void saveManifest(ConversionManifest manifest, File manifestFile, List<ConversionTask>... passes) {
+        // '--dedup' points stats files at the png of another source with the same content,
+        // so every stats file of a group is rebuilt once any of its sources changes
+        HashMap<String, List<String>> statsFilesBySource = new HashMap<>();
+        for (List<ConversionTask> pass : passes) {
+            for (ConversionTask task : pass) {
+                if (task.isConverted()) {
+                    statsFilesBySource.computeIfAbsent(task.getSourceKey(), key -> new ArrayList<>()).add(task.getStatsFile().getName());
+                }
+            }
+        }
+
+        HashMap<String, List<String>> sharedStatsFiles = new HashMap<>();
+        for (List<String> group : sharedSources) {
+            List<String> statsFiles = new ArrayList<>();
+            for (String source : group) {
+                statsFiles.addAll(statsFilesBySource.getOrDefault(source, List.of()));
+            }
+            for (String source : group) {
+                sharedStatsFiles.put(source, statsFiles);
+            }
+        }
+
+        for (List<ConversionTask> pass : passes) {
+            for (ConversionTask task : pass) {
+                ConversionManifest.Entry entry = task.getManifestEntry();
+
+                if (entry == null) {
+                    continue;
+                }
+                // Failed tasks didn't change their stats file, they'll be retried once their source changes
+                if (task.isConverted()) {
+                    entry.getStatsFiles().add(task.getStatsFile().getName());
+                }
+                entry.getStatsFiles().addAll(sharedStatsFiles.getOrDefault(task.getSourceKey(), List.of()));
+                entry.getPalettes().add(task.getPaletteName());
+                manifest.put(task.getSourceKey(), entry);
+            }
+        }
+
+        // A source's own stats file is part of its group as well, every stats file only has to be listed once
+        for (ConversionManifest.Entry entry : manifest.getEntries().values()) {
+            List<String> statsFiles = new ArrayList<>(new LinkedHashSet<>(entry.getStatsFiles()));
+            entry.getStatsFiles().clear();
+            entry.getStatsFiles().addAll(statsFiles);
+        }
+
+        try {
+            manifest.save(manifestFile);
+        } catch (Exception e) {
+            e.printStackTrace();
+            log.message("Couldnt write the manifest '" + manifestFile.getPath() + "'", true);
+        }
+    }
+
+    // Textures, sprites & emissive textures are sorted into the palette they contribute to without depending on each other,
+    // every stats file is then merged on its own: the textures first, then the sprites & emissive textures of the palettes that got one
+    private void convertAllPalettes(List<ConversionTask> textures, List<ConversionTask> sprites, List<ConversionTask> emissives) {
+        LinkedHashMap<String, StatsFileRecords> statsFiles = new LinkedHashMap<>();
+        collectRecords(statsFiles, textures, StatsFileRecords::addTexture);
+        collectRecords(statsFiles, sprites, StatsFileRecords::addSprite);
+        collectRecords(statsFiles, emissives, StatsFileRecords::addEmissive);
+
+        executor.executeEach(new ArrayList<>(statsFiles.values()), this::mergeRecords);
+
+        for (ConversionTask task : textures) {
+            if (task.getStatsFile() == null) {
+                reportMissingStatsFile(task);
+            } else if (!task.isConverted()) {
+                result.addErroredTexture(task.getTextureName() + ": " + task.getFileName());
+            }
+        }
+        for (ConversionTask task : sprites) {
+            if (task.getStatsFile() == null) {
+                reportMissingStatsFile(task);
+            } else if (task.isMissingTexture()) {
+                result.addErroredSprite(task.getTextureName() + ": " + task.getFileName() + " (no texture)");
+            } else if (!task.isConverted()) {
+                result.addErroredSprite(task.getTextureName() + ": " + task.getFileName());
+            }
+        }
+        for (ConversionTask task : emissives) {
+            if (task.getStatsFile() == null) {
+                reportMissingStatsFile(task);
+            } else if (task.isMissingTexture()) {
+                result.addErroredEmissiveTexture(task.getTextureName() + ": " + task.getFileName() + " (no texture)");
+            } else if (!task.isConverted()) {
+                result.addErroredEmissiveTexture(task.getTextureName() + ": " + task.getFileName());
+            }
+        }
+    }
+
+    private static void collectRecords(LinkedHashMap<String, StatsFileRecords> statsFiles, List<ConversionTask> tasks, BiConsumer<StatsFileRecords, ConversionTask> add) {
+        for (ConversionTask task : tasks) {
+            if (task.getStatsFile() == null) {
+                continue;
+            }
+
+            StatsFileRecords statsFile = statsFiles.computeIfAbsent(task.getPartition(), key -> new StatsFileRecords(task.getStatsFile()));
+            add.accept(statsFile, task);
+        }
+    }
+
+    private void mergeRecords(StatsFileRecords statsFile) {
+        // Parsed up front so the parse isn't timed as part of the first mutation, a failure is reported by the converters.
+        // Kept in memory until every record is merged
+        try {
+            statsDocuments.acquire(statsFile.getStatsFile());
+        } catch (Exception ignored) {
+        }
+
+        try {
+            mergeAcquiredRecords(statsFile);
+        } finally {
+            statsDocuments.release(statsFile.getStatsFile());
+        }
+    }
+
+    private void mergeAcquiredRecords(StatsFileRecords statsFile) {
+
+        // In scan order rather than record by record, the palettes of every gender are added in the order their textures were found
+        for (ConversionTask task : statsFile.getTextures()) {
+            long start = System.nanoTime();
+            task.setConverted(convertPokemon(task.getStatsFile(), task.getTextureName(), task.getSourceFile(), task.getPokemon()));
+            metrics.record(RunMetrics.Phase.MUTATE, start);
+
+            if (task.isConverted()) {
+                log.detail("Converted the texture '" + task.getTextureName() + "' for " + task.getPokemon());
+            } else {
+                log.message("An error occurred while trying to convert the texture '" + task.getTextureName() + "' for " + task.getPokemon(), true);
+            }
+        }
+
+        for (PaletteRecord record : statsFile.getRecords()) {
+            for (ConversionTask task : record.getSprites()) {
+                StatsDocument statsDocument = getStatsDocument(task);
+
+                if (statsDocument == null || !record.hasTexture(statsDocument.getPalettes(), task)) {
+                    task.setMissingTexture(true);
+                    log.message("Found no converted texture '" + task.getTextureName() + "' for the sprite of " + task.getPokemon(), true);
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                task.setConverted(convertSprite(statsDocument, task.getTextureName(), task.getSourceFile(), task.getPokemon()));
+                metrics.record(RunMetrics.Phase.MUTATE, start);
+
+                if (task.isConverted()) {
+                    log.detail("Converted the sprite '" + task.getTextureName() + "' for " + task.getPokemon());
+                } else {
+                    log.message("An error occurred while trying to convert the sprite '" + task.getTextureName() + "' for " + task.getPokemon(), true);
+                }
+            }
+        }
+
+        for (PaletteRecord record : statsFile.getRecords()) {
+            for (ConversionTask task : record.getEmissives()) {
+                StatsDocument statsDocument = getStatsDocument(task);
+
+                if (statsDocument == null || !record.hasTexture(statsDocument.getPalettes(), task)) {
+                    task.setMissingTexture(true);
+                    log.message("Found no converted texture '" + task.getTextureName() + "' for the emissive texture of " + task.getPokemon(), true);
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                task.setConverted(convertEmissiveTexture(task.getPokemon(), task.getTextureName(), task.getSourceFile(), statsDocument));
+                metrics.record(RunMetrics.Phase.MUTATE, start);
+
+                if (task.isConverted()) {
+                    log.detail("Converted the emissive texture '" + task.getTextureName() + "' for " + task.getPokemon());
+                } else {
+                    log.message("An error occurred while trying to convert the emissive texture '" + task.getTextureName() + "' for " + task.getPokemon(), true);
+                }
+            }
+        }
+    }
+
+    private StatsDocument getStatsDocument(ConversionTask task) {
+        try {
+            task.setStatsDocument(statsDocuments.get(task.getStatsFile()));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return task.getStatsDocument();
+    }
+
+    private void reportMissingStatsFile(ConversionTask task) {
+        log.message("Could not locate stats file for '" + task.getPokemon() + "'", true);
+        result.addErroredFile(task.getFileName());
+    }
+
+    private boolean convertEmissiveTexture(PokemonObject pokemon, String textureName, File sourceFile, StatsDocument statsDocument) {
+        try {
+            PokemonStats stats = statsDocument.getRoot();
+            PaletteIndex palettes = statsDocument.getPalettes();
+            String strippedTexture = textureName.replace("custom-", "");
+            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
+
+            String dexNum = String.format("%03d", stats.getDex());
+            String name = stats.getName().toLowerCase(Locale.ROOT);
+
+            String formName = palettes.findForm(pokemon.getName(), pokemon.getForm());
+            if (formName == null) {
+                return false;
+            }
+
+            String gender = pokemon.getGender();
+            String form = formName.equals("") ? "base" : formName;
+
+            for (PokemonStats.Gender genderProperties : palettes.getGenderProperties(formName)) {
+                if (gender.equals("ALL") || genderProperties.getGender().equalsIgnoreCase(gender)) {
+                    PokemonStats.Palette palette = palettes.findPalette(formName, genderProperties, strippedTexture);
+
+                    if (palette != null) {
+                        String genderString = genderProperties.getGender().toLowerCase(Locale.ROOT);
+                        String emissivePath = "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/" + getResourceFolder(textureName, pokemon) + "/emissive.png";
+                        palette.setEmissive(emissivePath);
+                        addResource(sourceFile, emissivePath);
+                        statsDocuments.markDirty(statsDocument);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean convertSprite(StatsDocument statsDocument, String textureName, File sourceFile, PokemonObject pokemon) {
+        try {
+            PokemonStats stats = statsDocument.getRoot();
+            PaletteIndex palettes = statsDocument.getPalettes();
+            String strippedTexture = textureName.replace("custom-", "");
+            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
+
+            String dexNum = String.format("%03d", stats.getDex());
+            String name = stats.getName().toLowerCase(Locale.ROOT);
+
+            String formName = palettes.findForm(pokemon.getName(), pokemon.getForm());
+            if (formName == null) {
+                return false;
+            }
+
+            String gender = pokemon.getGender();
+            String form = formName.equals("") ? "base" : formName;
+
+            for (PokemonStats.Gender genderProperties : palettes.getGenderProperties(formName)) {
+                if (gender.equals("ALL") || genderProperties.getGender().equalsIgnoreCase(gender)) {
+                    PokemonStats.Palette palette = palettes.findPalette(formName, genderProperties, strippedTexture);
+
+                    if (palette != null) {
+                        String genderString = genderProperties.getGender().toLowerCase(Locale.ROOT);
+                        String spritePath = "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/" + getResourceFolder(textureName, pokemon) + "/sprite.png";
+                        palette.setSprite(spritePath);
+                        addResource(sourceFile, spritePath);
+                        statsDocuments.markDirty(statsDocument);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean convertPokemon(File statsFile, String textureName, File sourceFile, PokemonObject pokemon) {
+        try {
+            StatsDocument statsDocument = statsDocuments.get(statsFile);
+            PokemonStats stats = statsDocument.getRoot();
+            PaletteIndex palettes = statsDocument.getPalettes();
+            String strippedTexture = textureName.replace("custom-", "");
+            strippedTexture = pokemon.isShiny() ? strippedTexture + "-shiny" : strippedTexture;
+
+            String dexNum = String.format("%03d", stats.getDex());
+            String name = stats.getName().toLowerCase(Locale.ROOT);
+
+            String formName = palettes.findForm(pokemon.getName(), pokemon.getForm());
+            if (formName == null) {
+                return false;
+            }
+
+            String gender = pokemon.getGender();
+            String form = formName.equals("") ? "base" : formName;
+            int conversions = 0;
+
+            for (PokemonStats.Gender genderProperties : palettes.getGenderProperties(formName)) {
+                if (genderProperties.getGender().equalsIgnoreCase(gender)) {
+                    String genderString = genderProperties.getGender().toLowerCase(Locale.ROOT);
+                    String texturePath = "pixelmon:pokemon/" + dexNum + "_" + name + "/" + genderString + "/" + form + "/" + getResourceFolder(textureName, pokemon) + "/texture.png";
+
+                    // An existing palette of the same name is updated, so converting a converted stats folder again doesn't duplicate it
+                    PokemonStats.Palette palette = palettes.getOrAddPalette(formName, genderProperties, strippedTexture);
+                    palette.setTexture(texturePath);
+
+                    if (pokemon.isShiny()) {
+                        palette.setParticle("arcanery:shiny");
+                    }
+
+                    statsDocuments.markDirty(statsDocument);
+                    addResource(sourceFile, texturePath);
+                    conversions++;
+                }
+            }
+            return conversions > 0;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    // Shinies get their own folder next to the texture folder, otherwise the pngs of a palette & its shiny would share one location
+    private static String getResourceFolder(String textureName, PokemonObject pokemon) {
+        return pokemon.isShiny() ? textureName + "-shiny" : textureName;
+    }
+
+    private void addResource(File sourceFile, String resourceLocation) {
+        if (resources != null) {
+            resources.add(sourceFile, resourceLocation);
+        }
+    }
+
+    private static class ConversionTask {
+        private File sourceFile;
+        private String fileName;
+        private String textureName;
+        private PokemonObject pokemon;
+        private File statsFile;
+        private StatsDocument statsDocument;
+        private boolean converted;
+        private boolean missingTexture;
+        private ConversionManifest.Entry manifestEntry;
+
+        public ConversionTask(PackScanner.ScannedFile file, File statsFile) {
+            this.sourceFile = file.getFile();
+            this.fileName = file.getFileName();
+            this.textureName = file.getTextureName();
+            this.pokemon = file.getPokemon();
+            this.statsFile = statsFile;
+        }
+
+        // Every edit to the same stats file happens on the same thread
+        public String getPartition() {
+            return statsFile.getPath();
+        }
+
+        public File getSourceFile() {
+            return sourceFile;
+        }
+
+        public String getSourceKey() {
+            return sourceFile.getAbsolutePath();
+        }
+
+        public String getPaletteName() {
+            String paletteName = textureName.replace("custom-", "");
+            return pokemon.isShiny() ? paletteName + "-shiny" : paletteName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getTextureName() {
+            return textureName;
+        }
+
+        public PokemonObject getPokemon() {
+            return pokemon;
+        }
+
+        public File getStatsFile() {
+            return statsFile;
+        }
+
+        public StatsDocument getStatsDocument() {
+            return statsDocument;
+        }
+
+        public void setStatsDocument(StatsDocument statsDocument) {
+            this.statsDocument = statsDocument;
+        }
+
+        public boolean isConverted() {
+            return converted;
+        }
+
+        public void setConverted(boolean converted) {
+            this.converted = converted;
+        }
+
+        // Sprites & emissive textures whose palette didn't get a texture
+        public boolean isMissingTexture() {
+            return missingTexture;
+        }
+
+        public void setMissingTexture(boolean missingTexture) {
+            this.missingTexture = missingTexture;
+        }
+
+        public ConversionManifest.Entry getManifestEntry() {
+            return manifestEntry;
+        }
+
+        public void setManifestEntry(ConversionManifest.Entry manifestEntry) {
+            this.manifestEntry = manifestEntry;
+        }
+    }
+
+    // The palette records of one stats file, in the order they were first seen, & its textures in the order they were scanned
+    private static class StatsFileRecords {
+        private File statsFile;
+        private LinkedHashMap<String, PaletteRecord> records = new LinkedHashMap<>();
+        private List<ConversionTask> textures = new ArrayList<>();
+
+        public StatsFileRecords(File statsFile) {
+            this.statsFile = statsFile;
+        }
+
+        // Sprites are named after the dex number & forms only resolve against the document, so the palette name identifies the record.
+        // Which form & gender a sprite belongs to is checked against the record's textures when it is merged (see PaletteRecord.hasTexture)
+        private PaletteRecord getRecord(ConversionTask task) {
+            return records.computeIfAbsent(task.getPaletteName().toLowerCase(Locale.ROOT), key -> new PaletteRecord());
+        }
+
+        public void addTexture(ConversionTask task) {
+            getRecord(task).getTextures().add(task);
+            textures.add(task);
+        }
+
+        public void addSprite(ConversionTask task) {
+            getRecord(task).getSprites().add(task);
+        }
+
+        public void addEmissive(ConversionTask task) {
+            getRecord(task).getEmissives().add(task);
+        }
+
+        public File getStatsFile() {
+            return statsFile;
+        }
+
+        public Collection<PaletteRecord> getRecords() {
+            return records.values();
+        }
+
+        public List<ConversionTask> getTextures() {
+            return textures;
+        }
+    }
+
+    // Everything a texture pack contributes to one palette: its textures (one per gender), sprites & emissive textures
+    private static class PaletteRecord {
+        private List<ConversionTask> textures = new ArrayList<>();
+        private List<ConversionTask> sprites = new ArrayList<>();
+        private List<ConversionTask> emissives = new ArrayList<>();
+
+        public List<ConversionTask> getTextures() {
+            return textures;
+        }
+
+        public List<ConversionTask> getSprites() {
+            return sprites;
+        }
+
+        public List<ConversionTask> getEmissives() {
+            return emissives;
+        }
+
+        // Whether a texture was converted for the form & gender of the sprite or emissive texture, sprites of gender 'ALL' take any gender
+        public boolean hasTexture(PaletteIndex palettes, ConversionTask task) {
+            PokemonObject pokemon = task.getPokemon();
+            String formName = palettes.findForm(pokemon.getName(), pokemon.getForm());
+            if (formName == null) {
+                return false;
+            }
+
+            for (ConversionTask texture : textures) {
+                PokemonObject texturePokemon = texture.getPokemon();
+
+                if (texture.isConverted() && formName.equals(palettes.findForm(texturePokemon.getName(), texturePokemon.getForm()))
+                        && (pokemon.getGender().equals("ALL") || texturePokemon.getGender().equalsIgnoreCase(pokemon.getGender()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package dev.notkili;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The differences the last verification found for every output stats file, by path. Reused while the size & modification time
+// of the stats file and its base stats file are unchanged, so repeated verifications don't have to read unchanged stats files at all
+class VerifyCache {
+    private static final int VERSION = 1;
+
+    private ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public static File getFile(File output) {
+        return SidecarFile.getFile(output, ".verify.json");
+    }
+
+    public static VerifyCache load(File file) {
+        VerifyCache cache = SidecarFile.load(file, VERSION, root -> {
+            VerifyCache loaded = new VerifyCache();
+            for (Map.Entry<String, JsonElement> statsFile : root.getAsJsonObject("statsFiles").entrySet()) {
+                JsonObject entry = statsFile.getValue().getAsJsonObject();
+                loaded.entries.put(statsFile.getKey(), new Entry(entry.get("size").getAsLong(), entry.get("modified").getAsLong(),
+                        entry.get("baseSize").getAsLong(), entry.get("baseModified").getAsLong(), SidecarFile.toList(entry.getAsJsonArray("added")),
+                        SidecarFile.toList(entry.getAsJsonArray("modifiedPalettes")), SidecarFile.toList(entry.getAsJsonArray("removed")),
+                        SidecarFile.toList(entry.getAsJsonArray("withoutSprite")), SidecarFile.toList(entry.getAsJsonArray("resources"))));
+            }
+            return loaded;
+        });
+        return cache != null ? cache : new VerifyCache();
+    }
+
+    public void save(File file) throws IOException {
+        SidecarFile.save(file, VERSION, root -> {
+            JsonObject statsFiles = new JsonObject();
+            for (Map.Entry<String, Entry> statsFile : new TreeMap<>(entries).entrySet()) {
+                Entry entry = statsFile.getValue();
+                JsonObject object = new JsonObject();
+                object.addProperty("size", entry.getSize());
+                object.addProperty("modified", entry.getModified());
+                object.addProperty("baseSize", entry.getBaseSize());
+                object.addProperty("baseModified", entry.getBaseModified());
+                object.add("added", SidecarFile.toArray(entry.getAdded()));
+                object.add("modifiedPalettes", SidecarFile.toArray(entry.getModifiedPalettes()));
+                object.add("removed", SidecarFile.toArray(entry.getRemoved()));
+                object.add("withoutSprite", SidecarFile.toArray(entry.getWithoutSprite()));
+                object.add("resources", SidecarFile.toArray(entry.getResources()));
+                statsFiles.add(statsFile.getKey(), object);
+            }
+            root.add("statsFiles", statsFiles);
+        });
+    }
+
+    // The cached entry, or null if the stats file or its base changed since it was cached. A missing base has a size & time of -1
+    public Entry get(File statsFile, long size, long modified, long baseSize, long baseModified) {
+        Entry entry = entries.get(statsFile.getAbsolutePath());
+        return entry != null && entry.getSize() == size && entry.getModified() == modified && entry.getBaseSize() == baseSize
+                && entry.getBaseModified() == baseModified ? entry : null;
+    }
+
+    public void put(File statsFile, Entry entry) {
+        entries.put(statsFile.getAbsolutePath(), entry);
+    }
+
+    // Palettes are named '<form>/<gender>/<palette>'
+    public static class Entry {
+        private long size;
+        private long modified;
+        private long baseSize;
+        private long baseModified;
+        private List<String> added;
+        private List<String> modifiedPalettes;
+        private List<String> removed;
+        private List<String> withoutSprite;
+        private List<String> resources;
+
+        public Entry(long size, long modified, long baseSize, long baseModified, List<String> added, List<String> modifiedPalettes,
+                     List<String> removed, List<String> withoutSprite, List<String> resources) {
+            this.size = size;
+            this.modified = modified;
+            this.baseSize = baseSize;
+            this.baseModified = baseModified;
+            this.added = added;
+            this.modifiedPalettes = modifiedPalettes;
+            this.removed = removed;
+            this.withoutSprite = withoutSprite;
+            this.resources = resources;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public long getBaseSize() {
+            return baseSize;
+        }
+
+        public long getBaseModified() {
+            return baseModified;
+        }
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getModifiedPalettes() {
+            return modifiedPalettes;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        // Added or modified palettes that have a texture but no sprite
+        public List<String> getWithoutSprite() {
+            return withoutSprite;
+        }
+
+        // '<palette> <resource location>' for every location an added or modified palette got, checked against the disk on every run
+        public List<String> getResources() {
+            return resources;
+        }
+    }
+}
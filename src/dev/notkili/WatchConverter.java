@@ -0,0 +1,158 @@
+package dev.notkili;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+// Converts the pack once and again whenever something in the texture, sprite (incl. the emissive folders) or stats folder changes.
+// Every run is incremental, so only the stats files of the changed pngs are rebuilt & their pngs copied again. The stats folder
+// stays parsed in memory between runs & is only parsed again once a stats file changes
+public class WatchConverter {
+    // Saving a png usually fires several events, they are collected until the folders are quiet for this long
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private ConverterConfig config;
+    private BaseStats baseStats;
+    private WatchService watchService;
+    private HashMap<WatchKey, Path> folders = new HashMap<>();
+    private int runs;
+
+    // Watches a copy of the config, so the caller's config stays as it is
+    public WatchConverter(ConverterConfig config) {
+        this.config = config.copy();
+        this.config.setIncremental(true);
+    }
+
+    // Only returns if the folders can't be watched anymore
+    public void watch() throws IOException {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            this.watchService = watchService;
+            register(config.getTextureFolder().toPath());
+            register(config.getSpriteFolder().toPath());
+            register(config.getStatsFolder().toPath());
+
+            convert(true, 0);
+
+            while (!folders.isEmpty()) {
+                WatchKey key = watchService.take();
+                boolean statsChanged = false;
+                int changes = 0;
+
+                // Collects events until none arrived for a while
+                while (key != null) {
+                    Path folder = folders.get(key);
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW || folder == null) {
+                            // Events were lost, a stats file might have changed as well
+                            statsChanged = true;
+                            changes++;
+                            continue;
+                        }
+
+                        Path path = folder.resolve((Path) event.context());
+                        if (isOwnOutput(path)) {
+                            continue;
+                        }
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                            register(path);
+                        }
+
+                        statsChanged |= path.startsWith(config.getStatsFolder().toPath());
+                        changes++;
+                    }
+
+                    if (!key.reset()) {
+                        folders.remove(key);
+                    }
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if (changes > 0) {
+                    convert(statsChanged, changes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed from another thread, stop watching
+        }
+    }
+
+    private void convert(boolean statsChanged, int changes) {
+        long start = System.nanoTime();
+
+        if (statsChanged || baseStats == null) {
+            baseStats = new BaseStats(config.getStatsFolder(), !config.hasDocumentBudget());
+        }
+
+        ConversionResult result;
+        try {
+            result = new TextureConverter(config, baseStats).convert();
+        } catch (Exception e) {
+            e.printStackTrace();
+            result = new ConversionResult();
+            result.setCompleted(false);
+        }
+
+        runs++;
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println((runs == 1 ? "Converted" : "Reconverted after " + changes + " changes") + " in " + millis + " ms, "
+                + (result.isCompleted() ? result.getErrorCount() + " errors" : "failed") + ". Watching for changes, stop with Ctrl+C");
+    }
+
+    // The output, the files next to it (i.e. '<output>.manifest.json' or '<output>.journal') & the log files might be inside of
+    // a watched folder, writing them isn't a change
+    private boolean isOwnOutput(Path path) {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        File output = config.getZipFile() != null ? config.getZipFile() : config.getOutputFolder();
+        Path outputPath = output.getAbsoluteFile().toPath().normalize();
+
+        if (absolutePath.startsWith(outputPath)) {
+            return true;
+        }
+        // Sidecar files are saved through a temporary file next to them
+        File outputFolder = config.getOutputFolder();
+        for (File sidecar : new File[]{ConversionManifest.getFile(outputFolder), ConversionJournal.getFile(outputFolder), PngCache.getFile(outputFolder)}) {
+            Path sidecarPath = sidecar.toPath().normalize();
+            if (absolutePath.equals(sidecarPath) || absolutePath.equals(DirectoryOutputSink.getTemp(sidecarPath))) {
+                return true;
+            }
+        }
+        for (File file : new File[]{config.getLogFile(), config.getResultFile(), config.getMetricsFile()}) {
+            if (file != null && absolutePath.equals(file.getAbsoluteFile().toPath().normalize())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Registers the folder and every folder in it
+    private void register(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                if (isOwnOutput(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                folders.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package dev.notkili;
+
+import com.google.gson.Gson;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Streams the stats files and pngs straight into a combined resource & data pack, without intermediate files on disk
+class ZipOutputSink implements OutputSink {
+    public static final String STATS_PATH = "data/pixelmon/stats/";
+    private static final int PACK_FORMAT = 6;
+
+    private ZipOutputStream zip;
+
+    public ZipOutputSink(File zipFile) throws IOException {
+        zip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile), 1 << 16));
+        writeEntry("pack.mcmeta", ("{\n  \"pack\": {\n    \"pack_format\": " + PACK_FORMAT + ",\n    \"description\": \"Converted with the pixelmon texture converter\"\n  }\n}\n").getBytes(StandardCharsets.UTF_8), true);
+    }
+
+    @Override
+    public long writeStats(String fileName, PokemonStats stats, Gson gson) throws IOException {
+        ZipEntry entry = new ZipEntry(STATS_PATH + fileName);
+        entry.setMethod(ZipEntry.DEFLATED);
+
+        // Streamed into the deflater, the writer is only flushed as closing it would close the zip
+        synchronized (this) {
+            zip.putNextEntry(entry);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+            stats.write(writer, gson);
+            writer.flush();
+            zip.closeEntry();
+        }
+        // Uncompressed, set once the entry is closed
+        return entry.getSize();
+    }
+
+    // Pngs are already compressed, so they are stored as they are
+    @Override
+    public WriteResult writeResource(File source, String resourceLocation) throws IOException {
+        int separator = resourceLocation.indexOf(':');
+        String namespace = separator < 0 ? "minecraft" : resourceLocation.substring(0, separator);
+        writeEntry("assets/" + namespace + "/" + resourceLocation.substring(separator + 1), Files.readAllBytes(source.toPath()), false);
+        return WriteResult.COPIED;
+    }
+
+    private void writeEntry(String name, byte[] data, boolean deflate) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+
+        if (deflate) {
+            entry.setMethod(ZipEntry.DEFLATED);
+        } else {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        synchronized (this) {
+            zip.putNextEntry(entry);
+            zip.write(data);
+            zip.closeEntry();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zip.close();
+    }
+}